@@ -0,0 +1,78 @@
+package io.weber.benchmark;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.service.NoOverdraftAccountService;
+import io.weber.service.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit and withdraw throughput and latency. With "own" every thread works on its own account, with "shared" all
+ * threads contend on one account. The repository is recreated every iteration so the history does not grow for the
+ * whole run. The thread count is set by {@link BenchmarkRunner}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BankServiceBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    @Param({"own", "shared"})
+    public String account;
+
+    private NoOverdraftAccountService service;
+    private UUID sharedAccount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new NoOverdraftAccountService(id -> true, new InMemoryTransactionRepository(), list -> { });
+        sharedAccount = UUID.randomUUID();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private UUID id;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            id = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public Transaction deposit(ThreadAccount threadAccount) throws NotFoundAccountException, InvalidTransactionException {
+        return service.deposit(accountId(threadAccount), AMOUNT);
+    }
+
+    @Benchmark
+    public Transaction depositThenWithdraw(ThreadAccount threadAccount)
+            throws NotFoundAccountException, InvalidTransactionException, OverdraftException {
+        var accountId = accountId(threadAccount);
+        service.deposit(accountId, AMOUNT);
+        return service.withdraw(accountId, AMOUNT);
+    }
+
+    private UUID accountId(ThreadAccount threadAccount) {
+        return "shared".equals(account) ? sharedAccount : threadAccount.id;
+    }
+}
@@ -0,0 +1,61 @@
+package io.weber.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the benchmarks matching a pattern with the GC profiler and writes JSON results, one file per benchmark class
+ * and, for the concurrent benchmarks, one file per thread count so throughput scaling can be compared between versions.
+ * Arguments: include pattern, comma separated thread counts, result directory.
+ */
+public final class BenchmarkRunner {
+    private static final List<Class<?>> SINGLE_THREADED =
+            List.of(FormatterBenchmark.class, PrinterBenchmark.class, RepositoryBenchmark.class,
+                    InstrumentationBenchmark.class);
+    private static final List<Class<?>> MULTI_THREADED = List.of(BankServiceBenchmark.class, PipelineBenchmark.class);
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        var include = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        var threads = Arrays.stream((args.length > 1 ? args[1] : "1").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        var results = Files.createDirectories(Path.of(args.length > 2 ? args[2] : "target/jmh"));
+
+        for (var benchmark : SINGLE_THREADED) {
+            if (include.matcher(benchmark.getName()).find()) {
+                run(benchmark, 1, results.resolve(benchmark.getSimpleName() + ".json"));
+            }
+        }
+        for (var benchmark : MULTI_THREADED) {
+            if (include.matcher(benchmark.getName()).find()) {
+                for (var count : threads) {
+                    run(benchmark, count, results.resolve(benchmark.getSimpleName() + "-" + count + "-threads.json"));
+                }
+            }
+        }
+    }
+
+    private static void run(Class<?> benchmark, int threads, Path result) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.")
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build()).run();
+    }
+}
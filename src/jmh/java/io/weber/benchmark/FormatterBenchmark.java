@@ -0,0 +1,54 @@
+package io.weber.benchmark;
+
+import io.weber.formatter.AppendableAccountStatementFormatter;
+import io.weber.formatter.ListAccountStatementFormatter;
+import io.weber.service.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class FormatterBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    private final ListAccountStatementFormatter listFormatter = new ListAccountStatementFormatter();
+    private final AppendableAccountStatementFormatter appendableFormatter = new AppendableAccountStatementFormatter();
+    private final StringBuilder out = new StringBuilder();
+    private List<Transaction> history;
+
+    @Setup
+    public void setUp() {
+        history = Histories.generate(historySize);
+    }
+
+    @Benchmark
+    public List<String> listFormatter() {
+        return listFormatter.format(history);
+    }
+
+    @Benchmark
+    public int appendableFormatter() throws IOException {
+        out.setLength(0);
+        appendableFormatter.format(history.iterator(), out);
+        return out.length();
+    }
+}
@@ -0,0 +1,34 @@
+package io.weber.benchmark;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class Histories {
+
+    private Histories() {
+    }
+
+    /**
+     * One account history with one transaction a day, alternating deposits and smaller withdraws.
+     */
+    static List<Transaction> generate(int size) {
+        var accountId = UUID.randomUUID();
+        var history = new ArrayList<Transaction>(size);
+        var date = LocalDate.of(2000, 1, 1);
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var deposit = i % 2 == 0;
+            var amount = deposit ? 10_000L + i % 997 : 5_000L + i % 101;
+            balance += deposit ? amount : -amount;
+            history.add(new Transaction(accountId, date.plusDays(i), BigDecimal.valueOf(amount, 2),
+                    deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAW, BigDecimal.valueOf(balance, 2)));
+        }
+        return history;
+    }
+}
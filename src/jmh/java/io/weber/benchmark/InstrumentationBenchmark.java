@@ -0,0 +1,45 @@
+package io.weber.benchmark;
+
+import io.weber.metrics.BankMetrics;
+import io.weber.metrics.Operation;
+import io.weber.metrics.Outcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost added by {@link io.weber.metrics.InstrumentedBankService} to every call: two clock reads, one histogram
+ * recording and one outcome increment. recordOnly leaves the clock reads out, their cost depends on the clock source.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+    private final BankMetrics metrics = new BankMetrics();
+    private long latency;
+
+    @Benchmark
+    public void recordCall() {
+        var start = System.nanoTime();
+        metrics.recordOutcome(Operation.DEPOSIT, Outcome.SUCCESS);
+        metrics.recordOperation(Operation.DEPOSIT, System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public void recordOnly() {
+        latency = (latency + 97) & 0xFFFF;
+        metrics.recordOutcome(Operation.DEPOSIT, Outcome.SUCCESS);
+        metrics.recordOperation(Operation.DEPOSIT, latency);
+    }
+}
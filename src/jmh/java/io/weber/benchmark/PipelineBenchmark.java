@@ -0,0 +1,59 @@
+package io.weber.benchmark;
+
+import io.weber.pipeline.IngestionPipeline;
+import io.weber.pipeline.PipelineConfig;
+import io.weber.pipeline.PipelineListener;
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.service.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained publication rate of the ingestion pipeline, the ring is small compared to an iteration so the score is
+ * bounded by the sequencer and the persister rather than by free slots.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+    private static final int ACCOUNTS = 1_024;
+
+    private final UUID[] accounts = new UUID[ACCOUNTS];
+    private IngestionPipeline pipeline;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = UUID.randomUUID();
+        }
+        pipeline = new IngestionPipeline(id -> true, new ColumnarTransactionRepository(), PipelineConfig.defaults(),
+                PipelineListener.NONE, Thread::new);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public long publish() {
+        return pipeline.publish(accounts[ThreadLocalRandom.current().nextInt(ACCOUNTS)], TransactionType.DEPOSIT, 100);
+    }
+}
@@ -0,0 +1,73 @@
+package io.weber.benchmark;
+
+import io.weber.formatter.AppendableAccountStatementFormatter;
+import io.weber.printer.ChannelAccountStatementPrinter;
+import io.weber.service.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement printing through a channel that discards the bytes, so only formatting and buffering are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class PrinterBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    private final DiscardingChannel channel = new DiscardingChannel();
+    private final ChannelAccountStatementPrinter printer =
+            new ChannelAccountStatementPrinter(new AppendableAccountStatementFormatter(), channel);
+    private List<Transaction> history;
+
+    @Setup
+    public void setUp() {
+        history = Histories.generate(historySize);
+    }
+
+    @Benchmark
+    public long channelPrinter() {
+        printer.print(history);
+        return channel.written;
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+        private long written;
+
+        @Override
+        public int write(ByteBuffer src) {
+            var remaining = src.remaining();
+            src.position(src.limit());
+            written += remaining;
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
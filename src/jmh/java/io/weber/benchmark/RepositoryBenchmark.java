@@ -0,0 +1,71 @@
+package io.weber.benchmark;
+
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.repository.TransactionRepository;
+import io.weber.service.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the repositories over one account history, the month query covers about thirty transactions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class RepositoryBenchmark {
+
+    @Param({"in-memory", "columnar"})
+    public String repository;
+
+    @Param({"1000", "100000"})
+    public int historySize;
+
+    private TransactionRepository transactionRepository;
+    private UUID accountId;
+    private LocalDate monthStart;
+
+    @Setup
+    public void setUp() {
+        transactionRepository = "columnar".equals(repository)
+                ? new ColumnarTransactionRepository()
+                : new InMemoryTransactionRepository();
+        var history = Histories.generate(historySize);
+        history.forEach(transactionRepository::addTransaction);
+        accountId = history.get(0).accountId();
+        monthStart = history.get(historySize / 2).date();
+    }
+
+    @Benchmark
+    public Optional<Transaction> lastTransaction() {
+        return transactionRepository.getLastTransaction(accountId);
+    }
+
+    @Benchmark
+    public List<Transaction> monthRange() {
+        return transactionRepository.getTransactions(accountId, monthStart, monthStart.plusDays(29));
+    }
+
+    @Benchmark
+    public List<Transaction> page() {
+        return transactionRepository.getTransactions(accountId, historySize / 2, 50);
+    }
+}
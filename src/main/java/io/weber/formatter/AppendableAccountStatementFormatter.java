@@ -0,0 +1,89 @@
+package io.weber.formatter;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Streaming counterpart of {@link ListAccountStatementFormatter} producing the same lines. Each line is rendered in
+ * one builder reused for the whole statement, dates and scale 2 amounts are written digit by digit.
+ */
+public class AppendableAccountStatementFormatter implements StreamingAccountStatementFormatter {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    @Override
+    public void format(Iterator<Transaction> transactions, Appendable out) throws IOException {
+        if (!transactions.hasNext()) {
+            return;
+        }
+        var line = new StringBuilder(128);
+        var transaction = transactions.next();
+        line.append(transaction.accountId()).append(LINE_SEPARATOR);
+        appendLines(line, transaction, transactions, out);
+    }
+
+    @Override
+    public void formatContinuation(Iterator<Transaction> transactions, Appendable out) throws IOException {
+        if (transactions.hasNext()) {
+            appendLines(new StringBuilder(128), transactions.next(), transactions, out);
+        }
+    }
+
+    private static void appendLines(StringBuilder line, Transaction transaction, Iterator<Transaction> transactions,
+                                    Appendable out) throws IOException {
+        while (true) {
+            appendTransaction(line, transaction);
+            line.append(LINE_SEPARATOR);
+            out.append(line);
+            line.setLength(0);
+            if (!transactions.hasNext()) {
+                return;
+            }
+            transaction = transactions.next();
+        }
+    }
+
+    static void appendTransaction(StringBuilder line, Transaction transaction) {
+        line.append("Transaction{date=");
+        appendDate(line, transaction.date());
+        line.append(", amount=");
+        appendAmount(line, transaction.amount());
+        line.append(", type=").append(transaction.type().name()).append(", accountBalance=");
+        appendAmount(line, transaction.accountBalance());
+        line.append('}');
+    }
+
+    private static void appendDate(StringBuilder line, LocalDate date) {
+        var year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            line.append(date);
+            return;
+        }
+        line.append(year).append('-');
+        appendTwoDigits(line, date.getMonthValue());
+        line.append('-');
+        appendTwoDigits(line, date.getDayOfMonth());
+    }
+
+    private static void appendAmount(StringBuilder line, BigDecimal amount) {
+        if (amount.scale() != Money.SCALE) {
+            line.append(amount);
+            return;
+        }
+        var cents = Money.toCents(amount);
+        if (cents < 0) {
+            line.append('-');
+        }
+        var absolute = Math.abs(cents);
+        line.append(absolute / 100).append('.');
+        appendTwoDigits(line, (int) (absolute % 100));
+    }
+
+    private static void appendTwoDigits(StringBuilder line, int value) {
+        line.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,18 @@
+package io.weber.formatter;
+
+import io.weber.service.Transaction;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+public interface StreamingAccountStatementFormatter {
+    /**
+     * Writes the statement to out, every line followed by the line separator, without building the whole statement.
+     */
+    void format(Iterator<Transaction> transactions, Appendable out) throws IOException;
+
+    /**
+     * Writes the lines of transactions following a statement already written, without the account header.
+     */
+    void formatContinuation(Iterator<Transaction> transactions, Appendable out) throws IOException;
+}
@@ -0,0 +1,61 @@
+package io.weber.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counters of a bank service and its repositories. Every recorder is created up front
+ * and indexed by enum ordinal, recording only touches preallocated counters.
+ */
+public final class BankMetrics {
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    private static final RepositoryCall[] REPOSITORY_CALLS = RepositoryCall.values();
+
+    private final LatencyHistogram[] operationLatencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] outcomes = new LongAdder[OPERATIONS.length * OUTCOMES.length];
+    private final LatencyHistogram[] repositoryLatencies = new LatencyHistogram[REPOSITORY_CALLS.length];
+
+    public BankMetrics() {
+        for (int i = 0; i < operationLatencies.length; i++) {
+            operationLatencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+        for (int i = 0; i < repositoryLatencies.length; i++) {
+            repositoryLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public void recordOperation(Operation operation, long nanos) {
+        operationLatencies[operation.ordinal()].record(nanos);
+    }
+
+    public void recordOutcome(Operation operation, Outcome outcome) {
+        outcomes[operation.ordinal() * OUTCOMES.length + outcome.ordinal()].increment();
+    }
+
+    public void recordRepositoryCall(RepositoryCall call, long nanos) {
+        repositoryLatencies[call.ordinal()].record(nanos);
+    }
+
+    public MetricsSnapshot snapshot() {
+        var operations = new EnumMap<Operation, HistogramSnapshot>(Operation.class);
+        var counters = new EnumMap<Operation, Map<Outcome, Long>>(Operation.class);
+        for (var operation : OPERATIONS) {
+            operations.put(operation, operationLatencies[operation.ordinal()].snapshot());
+            var byOutcome = new EnumMap<Outcome, Long>(Outcome.class);
+            for (var outcome : OUTCOMES) {
+                byOutcome.put(outcome, outcomes[operation.ordinal() * OUTCOMES.length + outcome.ordinal()].sum());
+            }
+            counters.put(operation, byOutcome);
+        }
+        var repositoryCalls = new EnumMap<RepositoryCall, HistogramSnapshot>(RepositoryCall.class);
+        for (var call : REPOSITORY_CALLS) {
+            repositoryCalls.put(call, repositoryLatencies[call.ordinal()].snapshot());
+        }
+        return new MetricsSnapshot(operations, counters, repositoryCalls);
+    }
+}
@@ -0,0 +1,25 @@
+package io.weber.metrics;
+
+import io.weber.repository.AccountRepository;
+
+import java.util.UUID;
+
+public class InstrumentedAccountRepository implements AccountRepository {
+    private final AccountRepository delegate;
+    private final BankMetrics metrics;
+
+    public InstrumentedAccountRepository(AccountRepository delegate, BankMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean ifAccountExist(UUID id) {
+        var start = System.nanoTime();
+        try {
+            return delegate.ifAccountExist(id);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.IF_ACCOUNT_EXIST, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.weber.metrics;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.service.BankCommand;
+import io.weber.service.BankService;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionResult;
+import io.weber.service.Transfer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records the latency and the outcome of every call made to the decorated service. A rejected withdraw of a positive
+ * amount is counted as an overdraft, the same mapping {@link BankService#execute} uses.
+ */
+public class InstrumentedBankService implements BankService {
+    private final BankService delegate;
+    private final BankMetrics metrics;
+
+    public InstrumentedBankService(BankService delegate, BankMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Transaction deposit(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        var start = System.nanoTime();
+        try {
+            var transaction = delegate.deposit(id, amount);
+            metrics.recordOutcome(Operation.DEPOSIT, Outcome.SUCCESS);
+            return transaction;
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.DEPOSIT, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } catch (InvalidTransactionException e) {
+            metrics.recordOutcome(Operation.DEPOSIT, Outcome.INVALID_AMOUNT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.DEPOSIT, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Transaction withdraw(UUID id, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException, OverdraftException {
+        var start = System.nanoTime();
+        try {
+            var transaction = delegate.withdraw(id, amount);
+            metrics.recordOutcome(Operation.WITHDRAW, Outcome.SUCCESS);
+            return transaction;
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.WITHDRAW, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } catch (InvalidTransactionException e) {
+            metrics.recordOutcome(Operation.WITHDRAW,
+                    amount == null || amount.signum() <= 0 ? Outcome.INVALID_AMOUNT : Outcome.OVERDRAFT);
+            throw e;
+        } catch (OverdraftException e) {
+            metrics.recordOutcome(Operation.WITHDRAW, Outcome.OVERDRAFT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.WITHDRAW, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Transfer transfer(UUID from, UUID to, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException {
+        var start = System.nanoTime();
+        try {
+            var transfer = delegate.transfer(from, to, amount);
+            metrics.recordOutcome(Operation.TRANSFER, Outcome.SUCCESS);
+            return transfer;
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.TRANSFER, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } catch (InvalidTransactionException e) {
+            metrics.recordOutcome(Operation.TRANSFER,
+                    amount == null || amount.signum() <= 0 || from.equals(to) ? Outcome.INVALID_AMOUNT : Outcome.OVERDRAFT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.TRANSFER, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void printAccountStatement(UUID id) throws NotFoundAccountException {
+        var start = System.nanoTime();
+        try {
+            delegate.printAccountStatement(id);
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.SUCCESS);
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.PRINT_STATEMENT, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException {
+        var start = System.nanoTime();
+        try {
+            delegate.printAccountStatement(id, from, to);
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.SUCCESS);
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.PRINT_STATEMENT, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException {
+        var start = System.nanoTime();
+        try {
+            var next = delegate.printAccountStatementPage(id, cursor, pageSize);
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.SUCCESS);
+            return next;
+        } catch (NotFoundAccountException e) {
+            metrics.recordOutcome(Operation.PRINT_STATEMENT, Outcome.UNKNOWN_ACCOUNT);
+            throw e;
+        } finally {
+            metrics.recordOperation(Operation.PRINT_STATEMENT, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<TransactionResult> execute(List<BankCommand> commands) {
+        var start = System.nanoTime();
+        try {
+            var results = delegate.execute(commands);
+            for (var result : results) {
+                metrics.recordOutcome(Operation.EXECUTE, outcome(result));
+            }
+            return results;
+        } finally {
+            metrics.recordOperation(Operation.EXECUTE, System.nanoTime() - start);
+        }
+    }
+
+    private static Outcome outcome(TransactionResult result) {
+        if (result instanceof TransactionResult.Accepted) {
+            return Outcome.SUCCESS;
+        }
+        if (result instanceof TransactionResult.Overdraft) {
+            return Outcome.OVERDRAFT;
+        }
+        if (result instanceof TransactionResult.InvalidAmount) {
+            return Outcome.INVALID_AMOUNT;
+        }
+        if (result instanceof TransactionResult.Failed) {
+            return Outcome.FAILURE;
+        }
+        return Outcome.UNKNOWN_ACCOUNT;
+    }
+}
@@ -0,0 +1,108 @@
+package io.weber.metrics;
+
+import io.weber.repository.TransactionFactory;
+import io.weber.repository.TransactionRepository;
+import io.weber.repository.TransferFactory;
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Times every call to the decorated repository. Appends are forwarded to the delegate so they keep its atomicity,
+ * their timing includes the factory run under the delegate lock.
+ */
+public class InstrumentedTransactionRepository implements TransactionRepository {
+    private final TransactionRepository delegate;
+    private final BankMetrics metrics;
+
+    public InstrumentedTransactionRepository(TransactionRepository delegate, BankMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        var start = System.nanoTime();
+        try {
+            return delegate.addTransaction(transaction);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.ADD_TRANSACTION, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        var start = System.nanoTime();
+        try {
+            return delegate.getLastTransaction(id);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.GET_LAST_TRANSACTION, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        var start = System.nanoTime();
+        try {
+            return delegate.getAllTransactions(id);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.GET_ALL_TRANSACTIONS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        var start = System.nanoTime();
+        try {
+            return delegate.getTransactions(id, from, to);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.GET_TRANSACTIONS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        var start = System.nanoTime();
+        try {
+            return delegate.getTransactions(id, cursor, limit);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.GET_TRANSACTIONS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var start = System.nanoTime();
+        try {
+            return delegate.appendTransaction(id, factory);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.APPEND_TRANSACTION, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var start = System.nanoTime();
+        try {
+            return delegate.appendTransactions(id, factory);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.APPEND_TRANSACTIONS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        var start = System.nanoTime();
+        try {
+            return delegate.appendTransfer(from, to, factory);
+        } finally {
+            metrics.recordRepositoryCall(RepositoryCall.APPEND_TRANSFER, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.weber.metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+public record MetricsSnapshot(Map<Operation, HistogramSnapshot> operations,
+                              Map<Operation, Map<Outcome, Long>> outcomes,
+                              Map<RepositoryCall, HistogramSnapshot> repositoryCalls) {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public long outcome(Operation operation, Outcome outcome) {
+        return outcomes.get(operation).get(outcome);
+    }
+
+    /**
+     * Writes the snapshot in the Prometheus text exposition format, latencies are summaries in seconds.
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        out.append("# TYPE bank_operation_seconds summary\n");
+        for (var entry : operations.entrySet()) {
+            writeSummary(out, "bank_operation_seconds", "operation", entry.getKey().name().toLowerCase(Locale.ROOT),
+                    entry.getValue());
+        }
+        out.append("# TYPE bank_operation_outcomes_total counter\n");
+        for (var entry : outcomes.entrySet()) {
+            for (var outcome : entry.getValue().entrySet()) {
+                out.append("bank_operation_outcomes_total{operation=\"")
+                        .append(entry.getKey().name().toLowerCase(Locale.ROOT))
+                        .append("\",outcome=\"").append(outcome.getKey().name().toLowerCase(Locale.ROOT))
+                        .append("\"} ").append(Long.toString(outcome.getValue())).append('\n');
+            }
+        }
+        out.append("# TYPE bank_repository_call_seconds summary\n");
+        for (var entry : repositoryCalls.entrySet()) {
+            writeSummary(out, "bank_repository_call_seconds", "call", entry.getKey().name().toLowerCase(Locale.ROOT),
+                    entry.getValue());
+        }
+    }
+
+    private static void writeSummary(Appendable out, String name, String label, String value,
+                                     HistogramSnapshot histogram) throws IOException {
+        for (var quantile : QUANTILES) {
+            out.append(name).append('{').append(label).append("=\"").append(value)
+                    .append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                    .append(seconds(histogram.valueAtPercentile(quantile * 100))).append('\n');
+        }
+        out.append(name).append("_sum{").append(label).append("=\"").append(value).append("\"} ")
+                .append(seconds(histogram.sum())).append('\n');
+        out.append(name).append("_count{").append(label).append("=\"").append(value).append("\"} ")
+                .append(Long.toString(histogram.count())).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,5 @@
+package io.weber.metrics;
+
+public enum Operation {
+    DEPOSIT, WITHDRAW, TRANSFER, PRINT_STATEMENT, EXECUTE
+}
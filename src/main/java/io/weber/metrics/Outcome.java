@@ -0,0 +1,5 @@
+package io.weber.metrics;
+
+public enum Outcome {
+    SUCCESS, OVERDRAFT, INVALID_AMOUNT, UNKNOWN_ACCOUNT, FAILURE
+}
@@ -0,0 +1,6 @@
+package io.weber.metrics;
+
+public enum RepositoryCall {
+    IF_ACCOUNT_EXIST, ADD_TRANSACTION, GET_LAST_TRANSACTION, GET_ALL_TRANSACTIONS, GET_TRANSACTIONS,
+    APPEND_TRANSACTION, APPEND_TRANSACTIONS, APPEND_TRANSFER
+}
@@ -0,0 +1,23 @@
+package io.weber.pipeline;
+
+import io.weber.service.TransactionResult;
+import io.weber.service.TransactionType;
+
+import java.util.UUID;
+
+/**
+ * Preallocated entry of the ring, written by a producer, completed by the sequencer with its result and cleared by
+ * the persister once the result is durable.
+ */
+final class CommandSlot {
+    UUID accountId;
+    TransactionType type;
+    long amountCents;
+    TransactionResult result;
+
+    void clear() {
+        accountId = null;
+        type = null;
+        result = null;
+    }
+}
@@ -0,0 +1,320 @@
+package io.weber.pipeline;
+
+import io.weber.repository.AccountRepository;
+import io.weber.repository.TransactionRepository;
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionResult;
+import io.weber.service.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingestion pipeline built on a ring of preallocated command slots.
+ * Producers claim a sequence, fill the slot and publish it. A single sequencer thread applies the account checks and
+ * the no overdraft rule in sequence order on balances it owns. A persister thread follows it and writes the accepted
+ * transactions of a batch with one {@link TransactionRepository#appendTransactions} call per account. A slot is only
+ * reused once persisted, so a full ring makes producers wait, which is the backpressure.
+ * The sequencer must be the only writer of the accounts it sees, and reads from the repository lag the pipeline by
+ * the queue depth.
+ * A command the sequencer can't apply gets a rejected result and the pipeline goes on. A stage that fails as a
+ * whole, a persister whose repository throws for instance, stops the pipeline: publications and {@link #close()}
+ * then throw an {@link IllegalStateException} caused by that failure.
+ */
+public class IngestionPipeline implements AutoCloseable {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PipelineListener listener;
+    private final int maxBatchSize;
+    private final int mask;
+    private final CommandSlot[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong sequenced = new AtomicLong(-1);
+    private final AtomicLong persisted = new AtomicLong(-1);
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LongAdder rejectedPublications = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final Map<UUID, long[]> balances = new HashMap<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Thread sequencer;
+    private final Thread persister;
+    private volatile boolean closed;
+    private volatile boolean stopping;
+
+    public IngestionPipeline(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                             PipelineConfig config, PipelineListener listener, ThreadFactory threadFactory) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.listener = listener;
+        this.maxBatchSize = config.maxBatchSize();
+        this.mask = config.capacity() - 1;
+        this.slots = new CommandSlot[config.capacity()];
+        this.published = new AtomicLongArray(config.capacity());
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new CommandSlot();
+            published.set(i, -1);
+        }
+        this.sequencer = threadFactory.newThread(this::runSequencer);
+        this.persister = threadFactory.newThread(this::runPersister);
+        sequencer.start();
+        persister.start();
+    }
+
+    /**
+     * Publishes a command and returns its sequence, waiting for a free slot when the ring is full.
+     */
+    public long publish(UUID accountId, TransactionType type, long amountCents) {
+        enter();
+        try {
+            var sequence = claimed.getAndIncrement();
+            var wrapPoint = sequence - slots.length;
+            if (wrapPoint > persisted.get()) {
+                backpressureWaits.increment();
+                var idle = 0;
+                while (wrapPoint > persisted.get()) {
+                    checkFailure();
+                    idle = idle(idle);
+                }
+            }
+            write(sequence, accountId, type, amountCents);
+            return sequence;
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    public long publish(UUID accountId, TransactionType type, BigDecimal amount) {
+        return publish(accountId, type, Money.toCents(amount));
+    }
+
+    /**
+     * Publishes a command and returns its sequence, or -1 without waiting when the ring is full.
+     */
+    public long tryPublish(UUID accountId, TransactionType type, long amountCents) {
+        enter();
+        try {
+            long sequence;
+            do {
+                sequence = claimed.get();
+                if (sequence - slots.length > persisted.get()) {
+                    rejectedPublications.increment();
+                    return -1;
+                }
+            } while (!claimed.compareAndSet(sequence, sequence + 1));
+            write(sequence, accountId, type, amountCents);
+            return sequence;
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    public PipelineStats stats() {
+        var persistedSequence = persisted.get();
+        var claimedSequences = claimed.get();
+        return new PipelineStats(claimedSequences, sequenced.get() + 1, persistedSequence + 1,
+                claimedSequences - persistedSequence - 1, backpressureWaits.sum(), rejectedPublications.sum(),
+                batches.sum());
+    }
+
+    /**
+     * Refuses new commands, waits until every published command is persisted and stops both threads. Throws when a
+     * stage failed, and returns with the interrupt flag set when interrupted while waiting for the stages.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        var idle = 0;
+        while (activeProducers.get() > 0) {
+            idle = idle(idle);
+        }
+        stopping = true;
+        try {
+            sequencer.join();
+            persister.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        checkFailure();
+    }
+
+    private void enter() {
+        activeProducers.incrementAndGet();
+        if (closed) {
+            activeProducers.decrementAndGet();
+            checkFailure();
+            throw new IllegalStateException("Pipeline is closed");
+        }
+    }
+
+    private void checkFailure() {
+        var cause = failure.get();
+        if (cause != null) {
+            throw new IllegalStateException("Ingestion pipeline failed", cause);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        failure.compareAndSet(null, cause);
+        closed = true;
+    }
+
+    private void write(long sequence, UUID accountId, TransactionType type, long amountCents) {
+        var slot = slots[(int) sequence & mask];
+        slot.accountId = accountId;
+        slot.type = type;
+        slot.amountCents = amountCents;
+        published.set((int) sequence & mask, sequence);
+    }
+
+    private void runSequencer() {
+        try {
+            sequence();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    private void sequence() {
+        var next = 0L;
+        var idle = 0;
+        while (failure.get() == null) {
+            var available = next - 1;
+            while (published.get((int) (available + 1) & mask) == available + 1) {
+                available++;
+            }
+            if (available < next) {
+                if (stopping && next == claimed.get()) {
+                    return;
+                }
+                idle = idle(idle);
+                continue;
+            }
+            idle = 0;
+            for (var sequence = next; sequence <= available; sequence++) {
+                var slot = slots[(int) sequence & mask];
+                try {
+                    slot.result = apply(slot);
+                } catch (ArithmeticException e) {
+                    slot.result = TransactionResult.INVALID_AMOUNT;
+                } catch (RuntimeException e) {
+                    slot.result = new TransactionResult.Failed(e);
+                }
+            }
+            sequenced.set(available);
+            next = available + 1;
+        }
+    }
+
+    private TransactionResult apply(CommandSlot slot) {
+        if (!accountRepository.ifAccountExist(slot.accountId)) {
+            return TransactionResult.UNKNOWN_ACCOUNT;
+        }
+        if (slot.amountCents <= 0) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        var balance = balances.computeIfAbsent(slot.accountId, id -> new long[]{transactionRepository.getLastTransaction(id)
+                .map(transaction -> Money.toCents(transaction.accountBalance()))
+                .orElse(0L)});
+        var next = slot.type.isCredit()
+                ? Money.add(balance[0], slot.amountCents)
+                : Money.subtract(balance[0], slot.amountCents);
+        if (next < 0) {
+            return TransactionResult.OVERDRAFT;
+        }
+        balance[0] = next;
+        return new TransactionResult.Accepted(new Transaction(slot.accountId, LocalDate.now(),
+                Money.toBigDecimal(slot.amountCents), slot.type, Money.toBigDecimal(next)));
+    }
+
+    private void runPersister() {
+        try {
+            persist();
+        } catch (Throwable e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * When the repository fails for an account, the commands of that account in the batch are reported as failed,
+     * the rest of the batch is still reported and the pipeline stops: the sequencer balances no longer match it.
+     */
+    private void persist() {
+        var next = 0L;
+        var idle = 0;
+        var batch = new LinkedHashMap<UUID, List<Transaction>>();
+        var failed = new HashMap<UUID, RuntimeException>();
+        while (failure.get() == null) {
+            var available = sequenced.get();
+            if (available < next) {
+                if (!sequencer.isAlive() && sequenced.get() < next) {
+                    return;
+                }
+                idle = idle(idle);
+                continue;
+            }
+            idle = 0;
+            var end = Math.min(available, next + maxBatchSize - 1);
+            for (var sequence = next; sequence <= end; sequence++) {
+                var slot = slots[(int) sequence & mask];
+                if (slot.result instanceof TransactionResult.Accepted accepted) {
+                    batch.computeIfAbsent(slot.accountId, id -> new ArrayList<>()).add(accepted.transaction());
+                }
+            }
+            batch.forEach((id, transactions) -> {
+                try {
+                    transactionRepository.appendTransactions(id, last -> transactions);
+                } catch (RuntimeException e) {
+                    failed.put(id, e);
+                }
+            });
+            batch.clear();
+            for (var sequence = next; sequence <= end; sequence++) {
+                var slot = slots[(int) sequence & mask];
+                var cause = failed.get(slot.accountId);
+                if (cause != null && slot.result instanceof TransactionResult.Accepted) {
+                    slot.result = new TransactionResult.Failed(cause);
+                }
+                listener.onResult(sequence, slot.accountId, slot.result);
+                slot.clear();
+            }
+            batches.increment();
+            persisted.set(end);
+            next = end + 1;
+            if (!failed.isEmpty()) {
+                fail(failed.values().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Spins, then yields, then parks for a few microseconds, so an idle stage costs little CPU while a busy one
+     * reacts immediately.
+     */
+    private static int idle(int idle) {
+        if (idle < 100) {
+            Thread.onSpinWait();
+        } else if (idle < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(10_000);
+        }
+        return idle + 1;
+    }
+}
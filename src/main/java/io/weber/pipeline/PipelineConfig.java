@@ -0,0 +1,21 @@
+package io.weber.pipeline;
+
+/**
+ * Capacity is the number of ring slots and must be a power of two, maxBatchSize bounds the commands persisted
+ * together.
+ */
+public record PipelineConfig(int capacity, int maxBatchSize) {
+
+    public PipelineConfig {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+    }
+
+    public static PipelineConfig defaults() {
+        return new PipelineConfig(64 * 1024, 4 * 1024);
+    }
+}
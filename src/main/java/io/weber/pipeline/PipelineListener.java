@@ -0,0 +1,15 @@
+package io.weber.pipeline;
+
+import io.weber.service.TransactionResult;
+
+import java.util.UUID;
+
+/**
+ * Told the result of every command on the persister thread, accepted commands only once they are persisted.
+ */
+@FunctionalInterface
+public interface PipelineListener {
+    PipelineListener NONE = (sequence, accountId, result) -> { };
+
+    void onResult(long sequence, UUID accountId, TransactionResult result);
+}
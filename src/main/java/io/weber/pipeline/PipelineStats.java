@@ -0,0 +1,9 @@
+package io.weber.pipeline;
+
+/**
+ * Queue depth counts the commands published but not yet persisted, backpressure waits the publications that had to
+ * wait for a free slot and rejected publications the {@link IngestionPipeline#tryPublish} calls refused on a full ring.
+ */
+public record PipelineStats(long published, long sequenced, long persisted, long queueDepth, long backpressureWaits,
+                            long rejectedPublications, long batches) {
+}
@@ -0,0 +1,151 @@
+package io.weber.printer;
+
+import io.weber.formatter.AccountStatementFormatter;
+import io.weber.repository.TransactionRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Writes the statement of every account to its own file. The accounts are split in ranges rendered in parallel on a
+ * fork join pool, every statement is written to a temporary file through a channel and moved to its final name once
+ * complete. A statement file that already exists is skipped, so a job interrupted by a crash is resumed by running
+ * it again.
+ */
+public class BulkStatementJob {
+    private static final String EXTENSION = ".statement";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final int LEAF_SIZE = 64;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountStatementFormatter formatter;
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final boolean fsync;
+
+    public BulkStatementJob(TransactionRepository transactionRepository, AccountStatementFormatter formatter,
+                            Path directory, ForkJoinPool pool, boolean fsync) {
+        this.transactionRepository = transactionRepository;
+        this.formatter = formatter;
+        this.directory = directory;
+        this.pool = pool;
+        this.fsync = fsync;
+    }
+
+    public static Path statementFile(Path directory, UUID accountId) {
+        return directory.resolve(accountId + EXTENSION);
+    }
+
+    /**
+     * Runs the job and returns the final progress, the listener is called from the workers every reportEvery
+     * statements.
+     */
+    public BulkStatementProgress run(Collection<UUID> accounts, int reportEvery, Consumer<BulkStatementProgress> listener)
+            throws IOException {
+        if (reportEvery <= 0) {
+            throw new IllegalArgumentException("Report interval must be positive");
+        }
+        Files.createDirectories(directory);
+        var run = new Run(accounts.toArray(UUID[]::new), reportEvery, listener);
+        pool.invoke(run.new Render(0, run.accounts.length));
+        return run.progress();
+    }
+
+    private final class Run {
+        private final UUID[] accounts;
+        private final int reportEvery;
+        private final Consumer<BulkStatementProgress> listener;
+        private final long start = System.nanoTime();
+        private final AtomicLong done = new AtomicLong();
+        private final LongAdder written = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final Map<UUID, Exception> failures = new ConcurrentHashMap<>();
+        private final LongAdder bytes = new LongAdder();
+
+        private Run(UUID[] accounts, int reportEvery, Consumer<BulkStatementProgress> listener) {
+            this.accounts = accounts;
+            this.reportEvery = reportEvery;
+            this.listener = listener;
+        }
+
+        private BulkStatementProgress progress() {
+            var failed = Map.copyOf(failures);
+            return new BulkStatementProgress(accounts.length, written.sum(), skipped.sum(), failed.size(), bytes.sum(),
+                    Duration.ofNanos(System.nanoTime() - start), failed);
+        }
+
+        private void write(UUID accountId, StringBuilder text) {
+            var target = statementFile(directory, accountId);
+            try {
+                if (Files.exists(target)) {
+                    skipped.increment();
+                } else {
+                    text.setLength(0);
+                    for (var line : formatter.format(transactionRepository.getAllTransactions(accountId))) {
+                        text.append(line).append('\n');
+                    }
+                    var buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                    var temporary = directory.resolve(accountId + EXTENSION + TEMPORARY_EXTENSION);
+                    try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        if (fsync) {
+                            channel.force(true);
+                        }
+                    }
+                    Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                    written.increment();
+                    bytes.add(buffer.limit());
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.put(accountId, e);
+            }
+            if (done.incrementAndGet() % reportEvery == 0) {
+                listener.accept(progress());
+            }
+        }
+
+        private final class Render extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            private Render(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= LEAF_SIZE) {
+                    var text = new StringBuilder();
+                    for (int i = from; i < to; i++) {
+                        write(accounts[i], text);
+                    }
+                    return;
+                }
+                var middle = (from + to) >>> 1;
+                invokeAll(new Render(from, middle), new Render(middle, to));
+            }
+        }
+    }
+}
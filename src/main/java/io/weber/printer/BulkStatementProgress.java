@@ -0,0 +1,22 @@
+package io.weber.printer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Written counts statements rendered by this run, skipped the ones a previous run already completed and failed the
+ * ones left for the next run, failures holds the exception of every failed account.
+ */
+public record BulkStatementProgress(long total, long written, long skipped, long failed, long bytes, Duration elapsed,
+                                    Map<UUID, Exception> failures) {
+
+    public long done() {
+        return written + skipped + failed;
+    }
+
+    public double statementsPerSecond() {
+        var nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : written * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,168 @@
+package io.weber.printer;
+
+import io.weber.formatter.StreamingAccountStatementFormatter;
+import io.weber.service.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Prints statements from the rendered bytes of the last statement printed for the account, only the transactions
+ * appended since are formatted. Histories are append only, so a statement extends the cached one when it holds at
+ * least as many transactions and starts with every cached transaction. Same day transactions of the same amount are
+ * equal, so checking the ends only would take a page for the prefix; any other statement, like a date range or a
+ * page, is rendered in full.
+ * Rendered statements are kept in a least recently used cache bounded by the bytes they hold.
+ */
+public class CachingAccountStatementPrinter implements AccountStatementPrinter {
+    private final StreamingAccountStatementFormatter formatter;
+    private final WritableByteChannel channel;
+    private final long capacityBytes;
+    private final Map<UUID, Rendered> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long formattedTransactions;
+
+    public CachingAccountStatementPrinter(StreamingAccountStatementFormatter formatter, WritableByteChannel channel,
+                                          long capacityBytes) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.formatter = formatter;
+        this.channel = channel;
+        this.capacityBytes = capacityBytes;
+    }
+
+    @Override
+    public synchronized void print(List<Transaction> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+        var accountId = list.get(0).accountId();
+        try {
+            var cached = statements.get(accountId);
+            Rendered rendered;
+            if (cached != null && cached.extendedBy(list)) {
+                hits++;
+                cachedBytes -= cached.bytes.array.length;
+                cached.bytes.formatContinuation(list.subList(cached.transactions.size(), list.size()));
+                rendered = cached;
+            } else {
+                misses++;
+                rendered = new Rendered();
+                rendered.bytes.format(list);
+                if (cached != null && cached.transactions.size() > list.size()) {
+                    write(rendered.bytes);
+                    return;
+                }
+                if (cached != null) {
+                    cachedBytes -= cached.bytes.array.length;
+                }
+                statements.put(accountId, rendered);
+            }
+            rendered.transactions = List.copyOf(list);
+            cachedBytes += rendered.bytes.array.length;
+            evict();
+            write(rendered.bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized StatementCacheStats stats() {
+        return new StatementCacheStats(hits, misses, evictions, formattedTransactions, cachedBytes, statements.size());
+    }
+
+    /**
+     * Evicts down to the capacity, a statement larger than the whole cache is evicted too but still printed.
+     */
+    private void evict() {
+        var eldest = statements.values().iterator();
+        while (cachedBytes > capacityBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().bytes.array.length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void write(RenderedBytes bytes) throws IOException {
+        var buffer = ByteBuffer.wrap(bytes.array, 0, bytes.size);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private final class Rendered {
+        private final RenderedBytes bytes = new RenderedBytes();
+        private List<Transaction> transactions = List.of();
+
+        private boolean extendedBy(List<Transaction> list) {
+            return list.size() >= transactions.size() && list.subList(0, transactions.size()).equals(transactions);
+        }
+    }
+
+    /**
+     * Growable UTF-8 buffer the formatter appends to, the cache counts the capacity of its array rather than the
+     * bytes written so the bound is on memory actually held.
+     */
+    private final class RenderedBytes implements Appendable {
+        private byte[] array = new byte[256];
+        private int size;
+
+        private void format(List<Transaction> transactions) throws IOException {
+            formatter.format(transactions.iterator(), this);
+            formattedTransactions += transactions.size();
+        }
+
+        private void formatContinuation(List<Transaction> transactions) throws IOException {
+            formatter.formatContinuation(transactions.iterator(), this);
+            formattedTransactions += transactions.size();
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c < 0x80) {
+                put((byte) c);
+            } else {
+                for (var b : String.valueOf(c).getBytes(StandardCharsets.UTF_8)) {
+                    put(b);
+                }
+            }
+            return this;
+        }
+
+        private void put(byte b) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, array.length * 2);
+            }
+            array[size++] = b;
+        }
+    }
+
+    public record StatementCacheStats(long hits, long misses, long evictions, long formattedTransactions,
+                                      long cachedBytes, int cachedStatements) {
+    }
+}
@@ -0,0 +1,105 @@
+package io.weber.printer;
+
+import io.weber.formatter.StreamingAccountStatementFormatter;
+import io.weber.service.Transaction;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Prints statements through a reusable buffer written to a channel, so printing costs the same memory whatever the
+ * length of the history and the channel is only written when the buffer is full or the statement is complete.
+ */
+public class ChannelAccountStatementPrinter implements AccountStatementPrinter {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final StreamingAccountStatementFormatter formatter;
+    private final ChannelAppendable out;
+
+    public ChannelAccountStatementPrinter(StreamingAccountStatementFormatter formatter, WritableByteChannel channel) {
+        this(formatter, channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ChannelAccountStatementPrinter(StreamingAccountStatementFormatter formatter, WritableByteChannel channel, int bufferSize) {
+        this.formatter = formatter;
+        this.out = new ChannelAppendable(channel, bufferSize);
+    }
+
+    public static ChannelAccountStatementPrinter toStandardOutput(StreamingAccountStatementFormatter formatter) {
+        return new ChannelAccountStatementPrinter(formatter, Channels.newChannel(new FileOutputStream(FileDescriptor.out)));
+    }
+
+    @Override
+    public void print(List<Transaction> list) {
+        print(list.iterator());
+    }
+
+    public synchronized void print(Iterator<Transaction> transactions) {
+        try {
+            formatter.format(transactions, out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes appended characters straight into the buffer, ASCII needs no intermediate objects.
+     */
+    private static final class ChannelAppendable implements Appendable {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        private ChannelAppendable(WritableByteChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (c < 0x80) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                buffer.put((byte) c);
+            } else {
+                for (var b : String.valueOf(c).getBytes(StandardCharsets.UTF_8)) {
+                    if (!buffer.hasRemaining()) {
+                        flush();
+                    }
+                    buffer.put(b);
+                }
+            }
+            return this;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
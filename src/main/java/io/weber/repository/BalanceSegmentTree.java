@@ -0,0 +1,98 @@
+package io.weber.repository;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree over a growing array of balances in cents, answering the minimum, maximum and sum of any index range
+ * in O(log n). Leaves are only appended or overwritten, the capacity doubles when full.
+ */
+final class BalanceSegmentTree {
+    private long[] min;
+    private long[] max;
+    private long[] sum;
+    private int capacity;
+    private int size;
+
+    BalanceSegmentTree() {
+        allocate(16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return sum[capacity + index];
+    }
+
+    /**
+     * Sets a leaf at most one past the last one.
+     */
+    void set(int index, long cents) {
+        if (index > size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index == capacity) {
+            grow();
+        }
+        size = Math.max(size, index + 1);
+        var node = capacity + index;
+        min[node] = cents;
+        max[node] = cents;
+        sum[node] = cents;
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            pull(node);
+        }
+    }
+
+    /**
+     * Minimum, maximum and sum of the leaves from first to last inclusive.
+     */
+    long[] query(int first, int last) {
+        var result = new long[]{Long.MAX_VALUE, Long.MIN_VALUE, 0};
+        for (int low = first + capacity, high = last + capacity + 1; low < high; low >>>= 1, high >>>= 1) {
+            if ((low & 1) == 1) {
+                combine(result, low++);
+            }
+            if ((high & 1) == 1) {
+                combine(result, --high);
+            }
+        }
+        return result;
+    }
+
+    private void combine(long[] result, int node) {
+        result[0] = Math.min(result[0], min[node]);
+        result[1] = Math.max(result[1], max[node]);
+        result[2] = Math.addExact(result[2], sum[node]);
+    }
+
+    private void pull(int node) {
+        min[node] = Math.min(min[node << 1], min[(node << 1) + 1]);
+        max[node] = Math.max(max[node << 1], max[(node << 1) + 1]);
+        sum[node] = Math.addExact(sum[node << 1], sum[(node << 1) + 1]);
+    }
+
+    private void grow() {
+        var oldCapacity = capacity;
+        var oldMin = min;
+        var oldMax = max;
+        var oldSum = sum;
+        allocate(oldCapacity * 2);
+        System.arraycopy(oldMin, oldCapacity, min, capacity, oldCapacity);
+        System.arraycopy(oldMax, oldCapacity, max, capacity, oldCapacity);
+        System.arraycopy(oldSum, oldCapacity, sum, capacity, oldCapacity);
+        for (int node = capacity - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        min = new long[newCapacity * 2];
+        max = new long[newCapacity * 2];
+        sum = new long[newCapacity * 2];
+        Arrays.fill(min, Long.MAX_VALUE);
+        Arrays.fill(max, Long.MIN_VALUE);
+    }
+}
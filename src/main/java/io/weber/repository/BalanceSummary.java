@@ -0,0 +1,10 @@
+package io.weber.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Minimum, maximum and average of the daily closing balances of an account between two dates inclusive.
+ */
+public record BalanceSummary(LocalDate from, LocalDate to, BigDecimal minimum, BigDecimal maximum, BigDecimal average) {
+}
@@ -0,0 +1,56 @@
+package io.weber.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Least recently used cache of encoded cold blocks bounded by their total size in bytes. Blocks are cached encoded,
+ * so the bound is exact and a hit still skips the disk read.
+ */
+final class BlockCache {
+    private final long capacityBytes;
+    private final Map<ColdStore.ColdBlock, byte[]> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    BlockCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Loads a missing block outside the cache lock, two readers missing the same block may both load it.
+     */
+    byte[] get(ColdStore.ColdBlock block, Function<ColdStore.ColdBlock, byte[]> loader) {
+        synchronized (this) {
+            var cached = blocks.get(block);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        var loaded = loader.apply(block);
+        if (loaded.length > capacityBytes) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (blocks.putIfAbsent(block, loaded) == null) {
+                bytes += loaded.length;
+                var eldest = blocks.entrySet().iterator();
+                while (bytes > capacityBytes) {
+                    bytes -= eldest.next().getValue().length;
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    synchronized TieredTransactionRepository.BlockCacheStats stats() {
+        return new TieredTransactionRepository.BlockCacheStats(hits, misses, evictions, bytes, blocks.size());
+    }
+}
@@ -0,0 +1,101 @@
+package io.weber.repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers account existence in front of a slow repository. Known accounts are kept in a bounded least recently used
+ * cache and every account ever opened is added to a Bloom filter, so an unknown id is usually rejected without
+ * reaching the delegate. The filter is seeded with the accounts existing at construction and must be told about
+ * accounts opened afterwards with {@link #accountOpened(UUID)}.
+ */
+public class CachingAccountRepository implements AccountRepository {
+    private static final Object PRESENT = new Object();
+
+    private final AccountRepository delegate;
+    private final BloomFilter knownAccounts;
+    private final Map<UUID, Object> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bloomRejections = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public CachingAccountRepository(AccountRepository delegate, Collection<UUID> existingAccounts,
+                                    long expectedAccounts, double falsePositiveRate, int cacheCapacity) {
+        if (cacheCapacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.knownAccounts = new BloomFilter(Math.max(expectedAccounts, existingAccounts.size()), falsePositiveRate);
+        existingAccounts.forEach(knownAccounts::add);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Object> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    @Override
+    public boolean ifAccountExist(UUID id) {
+        if (!knownAccounts.mightContain(id)) {
+            bloomRejections.increment();
+            return false;
+        }
+        synchronized (cache) {
+            if (cache.get(id) != null) {
+                hits.increment();
+                return true;
+            }
+        }
+        misses.increment();
+        var generation = invalidations.get();
+        if (!delegate.ifAccountExist(id)) {
+            falsePositives.increment();
+            return false;
+        }
+        synchronized (cache) {
+            if (invalidations.get() == generation) {
+                cache.put(id, PRESENT);
+            }
+        }
+        return true;
+    }
+
+    public void accountOpened(UUID id) {
+        knownAccounts.add(id);
+    }
+
+    /**
+     * Closed accounts leave the cache but stay in the Bloom filter, their next probes reach the delegate and are
+     * counted as false positives.
+     */
+    public void accountClosed(UUID id) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.remove(id);
+        }
+    }
+
+    public CacheStats stats() {
+        synchronized (cache) {
+            return new CacheStats(hits.sum(), misses.sum(), bloomRejections.sum(), falsePositives.sum(), cache.size());
+        }
+    }
+
+    public record CacheStats(long hits, long misses, long bloomRejections, long falsePositives, int size) {
+        public long requests() {
+            return hits + misses + bloomRejections;
+        }
+
+        public double hitRate() {
+            var requests = requests();
+            return requests == 0 ? 0 : (double) (hits + bloomRejections) / requests;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.weber.repository;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Append only segment files holding the cold blocks of a {@link TieredTransactionRepository}.
+ * A block is the account id, the number of transactions, one 21 bytes record per transaction (epoch day, type
+ * ordinal, amount and balance in cents) and a CRC32C of everything before it. Blocks are never rewritten, so they are
+ * read without any lock.
+ */
+final class ColdStore implements Closeable {
+    private static final String PREFIX = "cold-";
+    private static final String SUFFIX = ".segment";
+    private static final int HEADER_SIZE = Long.BYTES * 2 + Integer.BYTES;
+    private static final int RECORD_SIZE = Integer.BYTES + 1 + Long.BYTES * 2;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final long segmentSize;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private final List<Path> paths = new ArrayList<>();
+    private long position;
+
+    ColdStore(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        roll();
+    }
+
+    static int blockLength(int transactions) {
+        return HEADER_SIZE + transactions * RECORD_SIZE + Integer.BYTES;
+    }
+
+    /**
+     * Throws an {@link ArithmeticException} when the transaction can't be written to a block: an amount or a balance
+     * with a fraction of cent, or a date out of the epoch day range.
+     */
+    static void check(Transaction transaction) {
+        Math.toIntExact(transaction.date().toEpochDay());
+        Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY);
+        Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY);
+    }
+
+    synchronized ColdBlock write(UUID id, List<Transaction> transactions) throws IOException {
+        if (segments.isEmpty()) {
+            throw new IOException("Cold store is closed");
+        }
+        var length = blockLength(transactions.size());
+        if (position + length > segmentSize) {
+            roll();
+        }
+        var buffer = ByteBuffer.allocate(length);
+        buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).putInt(transactions.size());
+        for (var transaction : transactions) {
+            buffer.putInt(Math.toIntExact(transaction.date().toEpochDay()))
+                    .put((byte) transaction.type().ordinal())
+                    .putLong(Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY))
+                    .putLong(Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY));
+        }
+        var crc = new CRC32C();
+        crc.update(buffer.array(), 0, length - Integer.BYTES);
+        buffer.putInt((int) crc.getValue()).flip();
+        var segment = segments.size() - 1;
+        var offset = position;
+        var channel = segments.get(segment);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        position += length;
+        return new ColdBlock(segment, offset, length, transactions.get(0).date().toEpochDay(),
+                transactions.get(transactions.size() - 1).date().toEpochDay());
+    }
+
+    byte[] read(ColdBlock block) {
+        FileChannel channel;
+        synchronized (this) {
+            channel = segments.get(block.segment());
+        }
+        var buffer = ByteBuffer.allocate(block.length());
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                    throw new IOException("Cold block truncated in segment " + block.segment());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.array();
+    }
+
+    static List<Transaction> decode(byte[] bytes, UUID id) {
+        var buffer = ByteBuffer.wrap(bytes);
+        var crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        if (buffer.getInt(bytes.length - Integer.BYTES) != (int) crc.getValue()
+                || buffer.getLong() != id.getMostSignificantBits() || buffer.getLong() != id.getLeastSignificantBits()) {
+            throw new UncheckedIOException(new IOException("Corrupted cold block of account " + id));
+        }
+        var transactions = new Transaction[buffer.getInt()];
+        for (int i = 0; i < transactions.length; i++) {
+            var date = LocalDate.ofEpochDay(buffer.getInt());
+            var type = TYPES[buffer.get()];
+            transactions[i] = new Transaction(id, date, Money.toBigDecimal(buffer.getLong()), type,
+                    Money.toBigDecimal(buffer.getLong()));
+        }
+        return List.of(transactions);
+    }
+
+    /**
+     * Closes and deletes every segment, the cold tier does not survive the repository.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (var channel : segments) {
+            channel.close();
+        }
+        for (var path : paths) {
+            Files.deleteIfExists(path);
+        }
+        segments.clear();
+        paths.clear();
+    }
+
+    private void roll() throws IOException {
+        var path = directory.resolve(String.format("%s%010d%s", PREFIX, segments.size(), SUFFIX));
+        segments.add(FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+        paths.add(path);
+        position = 0;
+    }
+
+    record ColdBlock(int segment, long offset, int length, long firstEpochDay, long lastEpochDay) {
+    }
+}
@@ -0,0 +1,280 @@
+package io.weber.repository;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+import io.weber.service.TransactionType;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Stores the history of each account in growable primitive columns (cents, epoch day, type ordinal)
+ * and only materializes {@link Transaction} records when they are read.
+ * Amounts and balances are kept in cents, so they come back with a scale of 2. A batch or a transfer holding a
+ * transaction that can't be stored in the columns is rejected before any column changes.
+ */
+public class ColumnarTransactionRepository implements TransactionRepository {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Map<UUID, Columns> accounts = new ConcurrentHashMap<>();
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        var columns = columnsOf(transaction.accountId());
+        synchronized (columns) {
+            columns.append(transaction);
+        }
+        return transaction;
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        var columns = accounts.get(id);
+        if (columns == null) {
+            return Optional.empty();
+        }
+        synchronized (columns) {
+            return columns.last();
+        }
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        var columns = accounts.get(id);
+        if (columns == null) {
+            return List.of();
+        }
+        synchronized (columns) {
+            return columns.view();
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        var columns = accounts.get(id);
+        if (columns == null || from.isAfter(to)) {
+            return List.of();
+        }
+        var fromDay = from.toEpochDay();
+        var toDay = to.toEpochDay();
+        synchronized (columns) {
+            return columns.view(columns.firstDayAfter(fromDay - 1), columns.firstDayAfter(toDay));
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        DateSearch.checkPage(cursor, limit);
+        var columns = accounts.get(id);
+        if (columns == null) {
+            return List.of();
+        }
+        synchronized (columns) {
+            var start = Math.min(cursor, columns.size);
+            return columns.view(start, (int) Math.min((long) start + limit, columns.size));
+        }
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var columns = columnsOf(id);
+        synchronized (columns) {
+            var transaction = factory.create(columns.last());
+            if (transaction == null) {
+                return null;
+            }
+            if (!transaction.accountId().equals(id)) {
+                throw new IllegalArgumentException("Transaction does not belong to account " + id);
+            }
+            columns.append(transaction);
+            return transaction;
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var columns = columnsOf(id);
+        synchronized (columns) {
+            var batch = factory.apply(columns.last());
+            for (var transaction : batch) {
+                if (!transaction.accountId().equals(id)) {
+                    throw new IllegalArgumentException("Transaction does not belong to account " + id);
+                }
+                Columns.check(transaction);
+            }
+            batch.forEach(columns::append);
+            return batch;
+        }
+    }
+
+    /**
+     * Locks the columns of both accounts in account id order.
+     */
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Transfer accounts must be different");
+        }
+        var fromColumns = columnsOf(from);
+        var toColumns = columnsOf(to);
+        var ordered = from.compareTo(to) < 0;
+        synchronized (ordered ? fromColumns : toColumns) {
+            synchronized (ordered ? toColumns : fromColumns) {
+                var transfer = factory.create(fromColumns.last(), toColumns.last());
+                if (transfer == null) {
+                    return null;
+                }
+                if (!transfer.belongsTo(from, to)) {
+                    throw new IllegalArgumentException("Transfer does not belong to accounts " + from + " and " + to);
+                }
+                Columns.check(transfer.outgoing());
+                Columns.check(transfer.incoming());
+                fromColumns.append(transfer.outgoing());
+                toColumns.append(transfer.incoming());
+                return transfer;
+            }
+        }
+    }
+
+    /**
+     * Bytes retained by the columns of every account, without the per account bookkeeping.
+     */
+    public long columnBytes() {
+        var bytes = 0L;
+        for (var columns : accounts.values()) {
+            synchronized (columns) {
+                bytes += (long) columns.amounts.length * (Long.BYTES * 2 + Integer.BYTES + Byte.BYTES);
+            }
+        }
+        return bytes;
+    }
+
+    private Columns columnsOf(UUID id) {
+        return accounts.computeIfAbsent(id, Columns::new);
+    }
+
+    private static final class Columns {
+        private final UUID accountId;
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private long[] balances = new long[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private byte[] types = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        private Columns(UUID accountId) {
+            this.accountId = accountId;
+        }
+
+        /**
+         * Throws an {@link ArithmeticException} when the transaction has a fraction of cent or a date out of the
+         * epoch day range.
+         */
+        private static void check(Transaction transaction) {
+            Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY);
+            Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY);
+            Math.toIntExact(transaction.date().toEpochDay());
+        }
+
+        private void append(Transaction transaction) {
+            var amount = Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY);
+            var balance = Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY);
+            var epochDay = Math.toIntExact(transaction.date().toEpochDay());
+            if (size == amounts.length) {
+                var capacity = size + (size >> 1);
+                amounts = Arrays.copyOf(amounts, capacity);
+                balances = Arrays.copyOf(balances, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                types = Arrays.copyOf(types, capacity);
+            }
+            amounts[size] = amount;
+            balances[size] = balance;
+            epochDays[size] = epochDay;
+            types[size] = (byte) transaction.type().ordinal();
+            size++;
+        }
+
+        private Optional<Transaction> last() {
+            if (size == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(materialize(accountId, amounts, balances, epochDays, types, size - 1));
+        }
+
+        private List<Transaction> view() {
+            return view(0, size);
+        }
+
+        private List<Transaction> view(int from, int to) {
+            return new ColumnsView(accountId, amounts, balances, epochDays, types, from, to);
+        }
+
+        private int firstDayAfter(long epochDay) {
+            var low = 0;
+            var high = size;
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (epochDays[middle] > epochDay) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static Transaction materialize(UUID accountId, long[] amounts, long[] balances, int[] epochDays, byte[] types,
+                                           int index) {
+        return new Transaction(accountId, LocalDate.ofEpochDay(epochDays[index]), Money.toBigDecimal(amounts[index]),
+                TYPES[types[index]], Money.toBigDecimal(balances[index]));
+    }
+
+    /**
+     * Read only snapshot of the columns: growing copies the arrays and appends only write past the
+     * captured size, so the captured slots are never modified afterwards.
+     */
+    private static final class ColumnsView extends AbstractList<Transaction> implements RandomAccess {
+        private final UUID accountId;
+        private final long[] amounts;
+        private final long[] balances;
+        private final int[] epochDays;
+        private final byte[] types;
+        private final int from;
+        private final int size;
+
+        private ColumnsView(UUID accountId, long[] amounts, long[] balances, int[] epochDays, byte[] types, int from, int to) {
+            this.accountId = accountId;
+            this.amounts = amounts;
+            this.balances = balances;
+            this.epochDays = epochDays;
+            this.types = types;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return materialize(accountId, amounts, balances, epochDays, types, from + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
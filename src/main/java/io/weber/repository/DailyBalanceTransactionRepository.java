@@ -0,0 +1,230 @@
+package io.weber.repository;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Maintains the daily closing balance of every account as transactions are appended, so period analytics never
+ * replay the history. Each account holds one entry per day from its first transaction in a segment tree, days
+ * without transactions carry the previous closing balance, and the minimum, maximum and average over a date range
+ * are answered in O(log n).
+ * The aggregates of an account stay locked across the delegate's append: transactions are checked inside it, before
+ * the delegate stores them, and recorded once it returned, so aggregates follow the delegate's order and never hold
+ * a transaction the delegate rejected. The history of the accounts existing at construction is replayed once, and
+ * transactions must be appended in date order.
+ */
+public class DailyBalanceTransactionRepository implements TransactionRepository {
+    private final TransactionRepository delegate;
+    private final Map<UUID, DailyBalances> accounts = new ConcurrentHashMap<>();
+
+    public DailyBalanceTransactionRepository(TransactionRepository delegate, Collection<UUID> existingAccounts) {
+        this.delegate = delegate;
+        for (var id : existingAccounts) {
+            var history = delegate.getAllTransactions(id);
+            if (!history.isEmpty()) {
+                recorded(id, history);
+            }
+        }
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        return appendTransaction(transaction.accountId(), lastTransaction -> transaction);
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        return delegate.getLastTransaction(id);
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        return delegate.getAllTransactions(id);
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        return delegate.getTransactions(id, from, to);
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        return delegate.getTransactions(id, cursor, limit);
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var balances = balancesOf(id);
+        synchronized (balances) {
+            var transaction = delegate.<E1, E2>appendTransaction(id, lastTransaction -> {
+                var created = factory.create(lastTransaction);
+                if (created != null) {
+                    checked(id, balances, List.of(created));
+                }
+                return created;
+            });
+            if (transaction != null) {
+                balances.record(List.of(transaction));
+            }
+            return transaction;
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var balances = balancesOf(id);
+        synchronized (balances) {
+            var transactions = delegate.appendTransactions(id, lastTransaction -> {
+                var created = factory.apply(lastTransaction);
+                checked(id, balances, created);
+                return created;
+            });
+            balances.record(transactions);
+            return transactions;
+        }
+    }
+
+    /**
+     * Locks the aggregates of both accounts in account id order.
+     */
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Transfer accounts must be different");
+        }
+        var fromBalances = balancesOf(from);
+        var toBalances = balancesOf(to);
+        var ordered = from.compareTo(to) < 0;
+        synchronized (ordered ? fromBalances : toBalances) {
+            synchronized (ordered ? toBalances : fromBalances) {
+                var transfer = delegate.appendTransfer(from, to, (lastFrom, lastTo) -> {
+                    var created = factory.create(lastFrom, lastTo);
+                    if (created != null && created.belongsTo(from, to)) {
+                        fromBalances.check(List.of(created.outgoing()));
+                        toBalances.check(List.of(created.incoming()));
+                    }
+                    return created;
+                });
+                if (transfer != null) {
+                    fromBalances.record(List.of(transfer.outgoing()));
+                    toBalances.record(List.of(transfer.incoming()));
+                }
+                return transfer;
+            }
+        }
+    }
+
+    /**
+     * Closing balance of the account at the end of the day, empty before its first transaction.
+     */
+    public Optional<BigDecimal> closingBalance(UUID id, LocalDate date) {
+        var balances = accounts.get(id);
+        return balances == null ? Optional.empty() : balances.closing(date.toEpochDay());
+    }
+
+    /**
+     * Summary of the daily closing balances between from and to inclusive, days before the first transaction of the
+     * account are left out and days after its last one carry its balance. Empty when no day of the range is left.
+     */
+    public Optional<BalanceSummary> balanceSummary(UUID id, LocalDate from, LocalDate to) {
+        var balances = accounts.get(id);
+        return balances == null || from.isAfter(to) ? Optional.empty() : balances.summary(from.toEpochDay(), to.toEpochDay());
+    }
+
+    private void recorded(UUID id, List<Transaction> transactions) {
+        var balances = balancesOf(id);
+        checked(id, balances, transactions);
+        balances.record(transactions);
+    }
+
+    private static void checked(UUID id, DailyBalances balances, List<Transaction> transactions) {
+        for (var transaction : transactions) {
+            if (!transaction.accountId().equals(id)) {
+                throw new IllegalArgumentException("Transaction does not belong to account " + id);
+            }
+        }
+        balances.check(transactions);
+    }
+
+    private DailyBalances balancesOf(UUID id) {
+        return accounts.computeIfAbsent(id, key -> new DailyBalances());
+    }
+
+    private static final class DailyBalances {
+        private final BalanceSegmentTree closings = new BalanceSegmentTree();
+        private long firstDay;
+
+        private synchronized void check(List<Transaction> transactions) {
+            var lastDay = closings.size() == 0 ? Long.MIN_VALUE : firstDay + closings.size() - 1;
+            for (var transaction : transactions) {
+                var day = transaction.date().toEpochDay();
+                if (day < lastDay) {
+                    throw new IllegalArgumentException("Transactions must be appended in date order");
+                }
+                lastDay = day;
+            }
+        }
+
+        private synchronized void record(List<Transaction> transactions) {
+            for (var transaction : transactions) {
+                if (closings.size() == 0) {
+                    firstDay = transaction.date().toEpochDay();
+                }
+                var day = Math.toIntExact(transaction.date().toEpochDay() - firstDay);
+                for (int carried = closings.size(); carried < day; carried++) {
+                    closings.set(carried, closings.get(carried - 1));
+                }
+                closings.set(day, Money.toCents(transaction.accountBalance()));
+            }
+        }
+
+        private synchronized Optional<BigDecimal> closing(long epochDay) {
+            if (closings.size() == 0 || epochDay < firstDay) {
+                return Optional.empty();
+            }
+            var day = (int) Math.min(epochDay - firstDay, closings.size() - 1);
+            return Optional.of(Money.toBigDecimal(closings.get(day)));
+        }
+
+        private synchronized Optional<BalanceSummary> summary(long from, long to) {
+            if (closings.size() == 0 || to < firstDay) {
+                return Optional.empty();
+            }
+            var first = Math.max(from, firstDay) - firstDay;
+            var last = to - firstDay;
+            var lastRecorded = closings.size() - 1;
+            var minimum = Long.MAX_VALUE;
+            var maximum = Long.MIN_VALUE;
+            var sum = BigDecimal.ZERO;
+            if (first <= lastRecorded) {
+                var range = closings.query((int) first, (int) Math.min(last, lastRecorded));
+                minimum = range[0];
+                maximum = range[1];
+                sum = BigDecimal.valueOf(range[2]);
+            }
+            if (last > lastRecorded) {
+                var carried = closings.get(lastRecorded);
+                minimum = Math.min(minimum, carried);
+                maximum = Math.max(maximum, carried);
+                sum = sum.add(BigDecimal.valueOf(carried).multiply(BigDecimal.valueOf(last - Math.max(first, lastRecorded + 1) + 1)));
+            }
+            var days = BigDecimal.valueOf(last - first + 1);
+            return Optional.of(new BalanceSummary(LocalDate.ofEpochDay(firstDay + first), LocalDate.ofEpochDay(to),
+                    Money.toBigDecimal(minimum), Money.toBigDecimal(maximum),
+                    sum.divide(days, 0, RoundingMode.HALF_EVEN).movePointLeft(Money.SCALE)));
+        }
+    }
+}
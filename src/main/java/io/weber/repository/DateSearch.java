@@ -0,0 +1,46 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+
+import java.time.LocalDate;
+import java.util.List;
+
+final class DateSearch {
+
+    private DateSearch() {
+    }
+
+    static int firstOnOrAfter(List<Transaction> history, LocalDate date) {
+        var low = 0;
+        var high = history.size();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (history.get(middle).date().isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static int firstAfter(List<Transaction> history, LocalDate date) {
+        var low = 0;
+        var high = history.size();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (history.get(middle).date().isAfter(date)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    static void checkPage(int cursor, int limit) {
+        if (cursor < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Cursor can't be negative and limit must be positive");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.weber.repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryAccountRepository implements AccountRepository {
+    private final Set<UUID> accounts = ConcurrentHashMap.newKeySet();
+
+    public InMemoryAccountRepository() {
+    }
+
+    public InMemoryAccountRepository(Collection<UUID> accounts) {
+        this.accounts.addAll(accounts);
+    }
+
+    @Override
+    public boolean ifAccountExist(UUID id) {
+        return accounts.contains(id);
+    }
+
+    public void open(UUID id) {
+        accounts.add(id);
+    }
+
+    public void close(UUID id) {
+        accounts.remove(id);
+    }
+}
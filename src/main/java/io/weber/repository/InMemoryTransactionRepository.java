@@ -0,0 +1,194 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In memory repository guarded by a fixed set of locks, an account always maps to the same stripe
+ * so unrelated accounts rarely contend while the history of one account is only mutated under its lock.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Map<UUID, List<Transaction>> transactions = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public InMemoryTransactionRepository() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public InMemoryTransactionRepository(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be positive");
+        }
+        var size = Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = locks.length - 1;
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        var lock = lockFor(transaction.accountId());
+        lock.lock();
+        try {
+            return append(transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            return last(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            return List.copyOf(transactions.getOrDefault(id, List.of()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var history = transactions.getOrDefault(id, List.of());
+            return List.copyOf(history.subList(DateSearch.firstOnOrAfter(history, from), DateSearch.firstAfter(history, to)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        DateSearch.checkPage(cursor, limit);
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var history = transactions.getOrDefault(id, List.of());
+            var start = Math.min(cursor, history.size());
+            return List.copyOf(history.subList(start, (int) Math.min((long) start + limit, history.size())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var transaction = factory.create(last(id));
+            if (transaction == null) {
+                return null;
+            }
+            if (!transaction.accountId().equals(id)) {
+                throw new IllegalArgumentException("Transaction does not belong to account " + id);
+            }
+            return append(transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var batch = factory.apply(last(id));
+            for (var transaction : batch) {
+                if (!transaction.accountId().equals(id)) {
+                    throw new IllegalArgumentException("Transaction does not belong to account " + id);
+                }
+            }
+            transactions.computeIfAbsent(id, key -> new ArrayList<>()).addAll(batch);
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the stripes of both accounts in stripe order, a single lock when they share a stripe.
+     */
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Transfer accounts must be different");
+        }
+        var fromStripe = stripeOf(from);
+        var toStripe = stripeOf(to);
+        var first = locks[Math.min(fromStripe, toStripe)];
+        var second = locks[Math.max(fromStripe, toStripe)];
+        first.lock();
+        second.lock();
+        try {
+            var transfer = factory.create(last(from), last(to));
+            if (transfer == null) {
+                return null;
+            }
+            if (!transfer.belongsTo(from, to)) {
+                throw new IllegalArgumentException("Transfer does not belong to accounts " + from + " and " + to);
+            }
+            append(transfer.outgoing());
+            append(transfer.incoming());
+            return transfer;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    private Transaction append(Transaction transaction) {
+        transactions.computeIfAbsent(transaction.accountId(), key -> new ArrayList<>()).add(transaction);
+        return transaction;
+    }
+
+    private Optional<Transaction> last(UUID id) {
+        var history = transactions.get(id);
+        if (history == null || history.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(history.get(history.size() - 1));
+    }
+
+    private ReentrantLock lockFor(UUID id) {
+        return locks[stripeOf(id)];
+    }
+
+    private int stripeOf(UUID id) {
+        var hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
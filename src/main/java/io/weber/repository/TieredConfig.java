@@ -0,0 +1,26 @@
+package io.weber.repository;
+
+/**
+ * Sizing of a {@link TieredTransactionRepository}: the number of recent transactions kept on heap per account, the
+ * number of transactions spilled together as one cold block, the size of a segment file and the bytes of cold blocks
+ * cached on heap.
+ */
+public record TieredConfig(int hotWindow, int blockSize, long segmentSize, long blockCacheBytes) {
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    public TieredConfig {
+        if (hotWindow <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("Hot window and block size must be positive");
+        }
+        if (segmentSize < ColdStore.blockLength(blockSize)) {
+            throw new IllegalArgumentException("Segment size must hold at least one block");
+        }
+        if (blockCacheBytes < 0) {
+            throw new IllegalArgumentException("Block cache size can't be negative");
+        }
+    }
+
+    public static TieredConfig defaults() {
+        return new TieredConfig(32, 64, DEFAULT_SEGMENT_SIZE, 16L * 1024 * 1024);
+    }
+}
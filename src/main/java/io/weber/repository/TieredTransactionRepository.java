@@ -0,0 +1,276 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Keeps the most recent transactions of every account on heap and spills older ones to segment files, so the heap
+ * grows with the number of accounts instead of the length of their histories.
+ * Once an account holds {@code hotWindow + blockSize} recent transactions, the oldest {@code blockSize} are written as
+ * one cold block. Every cold block holds the same number of transactions, so a page read only loads the blocks it
+ * covers, and a date range read skips the blocks outside it. Cold blocks are served through a bounded block cache.
+ * The segment files are a spill area and not a durable store, they are deleted when the repository is closed.
+ */
+public class TieredTransactionRepository implements TransactionRepository, Closeable {
+    private static final int STRIPES = 64;
+
+    private final Map<UUID, Tiers> accounts = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final int hotWindow;
+    private final int blockSize;
+    private final ColdStore coldStore;
+    private final BlockCache blockCache;
+    private final LongAdder spilledTransactions = new LongAdder();
+
+    public TieredTransactionRepository(Path directory, TieredConfig config) throws IOException {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.hotWindow = config.hotWindow();
+        this.blockSize = config.blockSize();
+        this.coldStore = new ColdStore(directory, config.segmentSize());
+        this.blockCache = new BlockCache(config.blockCacheBytes());
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        var lock = lockFor(transaction.accountId());
+        lock.lock();
+        try {
+            return append(transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            return last(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        var view = view(id);
+        var history = new ArrayList<Transaction>(view.cold().size() * blockSize + view.hot().size());
+        for (var block : view.cold()) {
+            history.addAll(load(id, block));
+        }
+        history.addAll(view.hot());
+        return Collections.unmodifiableList(history);
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        var view = view(id);
+        var transactions = new ArrayList<Transaction>();
+        for (var block : view.cold()) {
+            if (block.lastEpochDay() >= from.toEpochDay() && block.firstEpochDay() <= to.toEpochDay()) {
+                var loaded = load(id, block);
+                transactions.addAll(loaded.subList(DateSearch.firstOnOrAfter(loaded, from), DateSearch.firstAfter(loaded, to)));
+            }
+        }
+        transactions.addAll(view.hot().subList(DateSearch.firstOnOrAfter(view.hot(), from),
+                DateSearch.firstAfter(view.hot(), to)));
+        return Collections.unmodifiableList(transactions);
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        DateSearch.checkPage(cursor, limit);
+        var view = view(id);
+        var coldSize = (long) view.cold().size() * blockSize;
+        var end = Math.min((long) cursor + limit, coldSize + view.hot().size());
+        if (cursor >= end) {
+            return List.of();
+        }
+        var transactions = new ArrayList<Transaction>();
+        for (var position = (long) cursor; position < Math.min(end, coldSize); ) {
+            var loaded = load(id, view.cold().get((int) (position / blockSize)));
+            var offset = (int) (position % blockSize);
+            var count = (int) Math.min(blockSize - offset, Math.min(end, coldSize) - position);
+            transactions.addAll(loaded.subList(offset, offset + count));
+            position += count;
+        }
+        if (end > coldSize) {
+            transactions.addAll(view.hot().subList((int) (Math.max(cursor, coldSize) - coldSize), (int) (end - coldSize)));
+        }
+        return Collections.unmodifiableList(transactions);
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var transaction = factory.create(last(id));
+            if (transaction == null) {
+                return null;
+            }
+            if (!transaction.accountId().equals(id)) {
+                throw new IllegalArgumentException("Transaction does not belong to account " + id);
+            }
+            return append(transaction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var batch = factory.apply(last(id));
+            for (var transaction : batch) {
+                if (!transaction.accountId().equals(id)) {
+                    throw new IllegalArgumentException("Transaction does not belong to account " + id);
+                }
+                ColdStore.check(transaction);
+            }
+            batch.forEach(this::append);
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the stripes of both accounts in stripe order, a single lock when they share a stripe.
+     */
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Transfer accounts must be different");
+        }
+        var fromStripe = stripeOf(from);
+        var toStripe = stripeOf(to);
+        var first = locks[Math.min(fromStripe, toStripe)];
+        var second = locks[Math.max(fromStripe, toStripe)];
+        first.lock();
+        second.lock();
+        try {
+            var transfer = factory.create(last(from), last(to));
+            if (transfer == null) {
+                return null;
+            }
+            if (!transfer.belongsTo(from, to)) {
+                throw new IllegalArgumentException("Transfer does not belong to accounts " + from + " and " + to);
+            }
+            ColdStore.check(transfer.outgoing());
+            ColdStore.check(transfer.incoming());
+            append(transfer.outgoing());
+            append(transfer.incoming());
+            return transfer;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    public BlockCacheStats cacheStats() {
+        return blockCache.stats();
+    }
+
+    public long spilledTransactions() {
+        return spilledTransactions.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        coldStore.close();
+    }
+
+    /**
+     * Spills while the stripe lock is held, a spill blocks the accounts of its stripe for one block write.
+     * The transaction is checked before anything changes and only joins the hot window once the spill it requires
+     * succeeded, so a transaction that can't be spilled is rejected instead of staying on heap for good.
+     */
+    private Transaction append(Transaction transaction) {
+        ColdStore.check(transaction);
+        var tiers = accounts.computeIfAbsent(transaction.accountId(), key -> new Tiers());
+        if (tiers.hot.size() + 1 >= hotWindow + blockSize) {
+            var spilled = tiers.hot.subList(0, blockSize);
+            try {
+                tiers.cold.add(coldStore.write(transaction.accountId(), spilled));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spilled.clear();
+            spilledTransactions.add(blockSize);
+        }
+        tiers.hot.add(transaction);
+        return transaction;
+    }
+
+    private Optional<Transaction> last(UUID id) {
+        var tiers = accounts.get(id);
+        if (tiers == null || tiers.hot.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(tiers.hot.get(tiers.hot.size() - 1));
+    }
+
+    /**
+     * Copies the block list and the hot window under the lock, the blocks themselves are immutable and loaded after.
+     */
+    private View view(UUID id) {
+        var lock = lockFor(id);
+        lock.lock();
+        try {
+            var tiers = accounts.get(id);
+            return tiers == null ? new View(List.of(), List.of()) : new View(List.copyOf(tiers.cold), List.copyOf(tiers.hot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Transaction> load(UUID id, ColdStore.ColdBlock block) {
+        return ColdStore.decode(blockCache.get(block, coldStore::read), id);
+    }
+
+    private ReentrantLock lockFor(UUID id) {
+        return locks[stripeOf(id)];
+    }
+
+    private int stripeOf(UUID id) {
+        var hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Tiers {
+        private final List<ColdStore.ColdBlock> cold = new ArrayList<>();
+        private final List<Transaction> hot = new ArrayList<>();
+    }
+
+    private record View(List<ColdStore.ColdBlock> cold, List<Transaction> hot) {
+    }
+
+    public record BlockCacheStats(long hits, long misses, long evictions, long cachedBytes, int cachedBlocks) {
+    }
+}
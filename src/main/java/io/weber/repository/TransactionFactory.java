@@ -0,0 +1,10 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+
+import java.util.Optional;
+
+@FunctionalInterface
+public interface TransactionFactory<E1 extends Exception, E2 extends Exception> {
+    Transaction create(Optional<Transaction> lastTransaction) throws E1, E2;
+}
@@ -1,14 +1,75 @@
 package io.weber.repository;
 
 import io.weber.service.Transaction;
+import io.weber.service.Transfer;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 public interface TransactionRepository {
     Transaction addTransaction(Transaction transaction);
     Optional<Transaction> getLastTransaction(UUID id);
     List<Transaction> getAllTransactions(UUID id);
 
+    /**
+     * Transactions dated between from and to inclusive. Transactions are appended in date order, so implementations
+     * find the bounds with a binary search instead of filtering the whole history.
+     */
+    default List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        var history = getAllTransactions(id);
+        return List.copyOf(history.subList(DateSearch.firstOnOrAfter(history, from),
+                DateSearch.firstAfter(history, to)));
+    }
+
+    /**
+     * At most limit transactions starting at the cursor, the position of a transaction in the account history.
+     */
+    default List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        DateSearch.checkPage(cursor, limit);
+        var history = getAllTransactions(id);
+        var from = Math.min(cursor, history.size());
+        return List.copyOf(history.subList(from, (int) Math.min((long) from + limit, history.size())));
+    }
+
+    /**
+     * Builds the next transaction of the account from its last one and appends it, a factory returning null
+     * appends nothing and null is returned.
+     * The default implementation is not atomic, implementations shared between threads must override it.
+     */
+    default <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        var transaction = factory.create(getLastTransaction(id));
+        return transaction == null ? null : addTransaction(transaction);
+    }
+
+    /**
+     * Same contract as {@link #appendTransaction} for several transactions of one account appended in a single call.
+     */
+    default List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        var transactions = factory.apply(getLastTransaction(id));
+        transactions.forEach(this::addTransaction);
+        return transactions;
+    }
+
+    /**
+     * Builds both legs of a transfer from the last transaction of each account and appends them together, a factory
+     * returning null appends nothing and null is returned.
+     * The default implementation is not atomic, implementations shared between threads must override it and must
+     * lock the two accounts in a global order so concurrent transfers cannot deadlock.
+     */
+    default Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        var transfer = factory.create(getLastTransaction(from), getLastTransaction(to));
+        if (transfer != null) {
+            addTransaction(transfer.outgoing());
+            addTransaction(transfer.incoming());
+        }
+        return transfer;
+    }
+
 }
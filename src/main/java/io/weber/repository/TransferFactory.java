@@ -0,0 +1,11 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.util.Optional;
+
+@FunctionalInterface
+public interface TransferFactory {
+    Transfer create(Optional<Transaction> lastFromTransaction, Optional<Transaction> lastToTransaction);
+}
@@ -0,0 +1,13 @@
+package io.weber.repository.journal;
+
+public enum FsyncPolicy {
+    /** Forces the segment to disk after every append. */
+    EVERY_APPEND,
+    /**
+     * Forces the segment to disk once per group of appends, see {@link JournalConfig#groupCommitSize()}, or once
+     * {@link JournalConfig#groupCommitDelay()} elapsed.
+     */
+    GROUP,
+    /** Leaves flushing to the operating system, only rolling and closing force the segment. */
+    OS
+}
@@ -0,0 +1,318 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append only journal of fixed size records spread over memory mapped segment files. A segment is named after
+ * the sequence of its first record and a new one is started when the current one is full.
+ * Opening the journal replays every valid record and truncates a torn record left at the tail by a crash.
+ * A batch is written to a single segment and replayed whole or not at all, a batch that doesn't fit leaves the end
+ * of the current segment zeroed and starts the next one. With {@link FsyncPolicy#GROUP} a background thread forces
+ * the appends of an incomplete group once the group commit delay elapsed.
+ */
+public class Journal implements Closeable {
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".journal";
+    private static final System.Logger LOGGER = System.getLogger(Journal.class.getName());
+
+    private final Path directory;
+    private final JournalConfig config;
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer segment;
+    private int position;
+    private int syncedPosition;
+    private int unsynced;
+    private long nextSequence = 1;
+    private boolean closed;
+    private ScheduledExecutorService flusher;
+
+    private Journal(Path directory, JournalConfig config) {
+        this.directory = directory;
+        this.config = config;
+    }
+
+    public static Journal open(Path directory, JournalConfig config, Consumer<JournalEntry> replay) throws IOException {
+        return open(directory, config, 1, replay);
+    }
+
+    /**
+     * Opens the journal and only replays the records from the given sequence, segments holding older records
+     * only are not read at all.
+     */
+    public static Journal open(Path directory, JournalConfig config, long fromSequence, Consumer<JournalEntry> replay)
+            throws IOException {
+        Files.createDirectories(directory);
+        var journal = new Journal(directory, config);
+        journal.recover(fromSequence, replay);
+        if (config.fsyncPolicy() == FsyncPolicy.GROUP) {
+            journal.startFlusher();
+        }
+        return journal;
+    }
+
+    public long append(Transaction transaction) throws IOException {
+        return append(List.of(transaction));
+    }
+
+    /**
+     * Appends the transactions as one batch and returns the sequence of the first one. Every transaction is checked
+     * before anything is written, and the batch starts a new segment when it doesn't fit in the current one.
+     */
+    public synchronized long append(List<Transaction> batch) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (batch.isEmpty()) {
+            throw new IllegalArgumentException("Batch must not be empty");
+        }
+        var size = (long) batch.size() * JournalRecord.SIZE;
+        if (size > config.segmentSize()) {
+            throw new IllegalArgumentException("Batch of " + batch.size() + " records does not fit in a journal segment");
+        }
+        batch.forEach(JournalRecord::check);
+        if (position + size > segment.capacity()) {
+            roll();
+        }
+        var first = nextSequence;
+        for (int i = 0; i < batch.size(); i++) {
+            JournalRecord.write(segment, position, nextSequence, batch.get(i), i < batch.size() - 1, crc);
+            position += JournalRecord.SIZE;
+            nextSequence++;
+            unsynced++;
+        }
+        if (config.fsyncPolicy() == FsyncPolicy.EVERY_APPEND
+                || (config.fsyncPolicy() == FsyncPolicy.GROUP && unsynced >= config.groupCommitSize())) {
+            force();
+        }
+        return first;
+    }
+
+    public synchronized void sync() {
+        if (!closed) {
+            force();
+        }
+    }
+
+    synchronized int unsynced() {
+        return unsynced;
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            force();
+            closed = true;
+            if (flusher != null) {
+                flusher.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Moves to the archive directory every segment whose records all have a sequence lower or equal to the given one,
+     * the segment being written is always kept.
+     */
+    public synchronized List<Path> archive(long upToSequence, Path archiveDirectory) throws IOException {
+        Files.createDirectories(archiveDirectory);
+        var segments = segments(directory);
+        var archived = new ArrayList<Path>();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstSequence(segments.get(i + 1)) - 1 > upToSequence) {
+                break;
+            }
+            var target = archiveDirectory.resolve(segments.get(i).getFileName());
+            Files.move(segments.get(i), target, StandardCopyOption.ATOMIC_MOVE);
+            archived.add(target);
+        }
+        return archived;
+    }
+
+    /**
+     * Reads the records with a sequence lower or equal to the given one from closed or archived segments.
+     */
+    public static void scan(List<Path> segments, long upToSequence, Consumer<JournalEntry> consumer) throws IOException {
+        var crc = new CRC32C();
+        for (var path : segments) {
+            if (firstSequence(path) > upToSequence) {
+                continue;
+            }
+            MappedByteBuffer buffer;
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            for (int offset = 0; offset + JournalRecord.SIZE <= buffer.capacity(); offset += JournalRecord.SIZE) {
+                if (JournalRecord.sequence(buffer, offset) > upToSequence || !JournalRecord.isValid(buffer, offset, crc)) {
+                    break;
+                }
+                consumer.accept(JournalRecord.read(buffer, offset));
+            }
+        }
+    }
+
+    private void recover(long fromSequence, Consumer<JournalEntry> replay) throws IOException {
+        var segments = segments(directory);
+        var first = 0;
+        while (first + 1 < segments.size() && firstSequence(segments.get(first + 1)) <= fromSequence) {
+            first++;
+        }
+        nextSequence = fromSequence;
+        for (int i = first; i < segments.size(); i++) {
+            var path = segments.get(i);
+            var expected = firstSequence(path);
+            if (expected > nextSequence || (i > first && expected != nextSequence)) {
+                throw new IllegalStateException("Missing journal records before segment " + path);
+            }
+            var buffer = map(path, Files.size(path));
+            var offset = 0;
+            var batch = new ArrayList<JournalEntry>();
+            var batchOffset = 0;
+            while (offset + JournalRecord.SIZE <= buffer.capacity() && JournalRecord.isValid(buffer, offset, crc)
+                    && JournalRecord.sequence(buffer, offset) == expected) {
+                if (batch.isEmpty()) {
+                    batchOffset = offset;
+                }
+                batch.add(JournalRecord.read(buffer, offset));
+                if (!JournalRecord.continued(buffer, offset)) {
+                    for (var entry : batch) {
+                        if (entry.sequence() >= fromSequence) {
+                            replay.accept(entry);
+                        }
+                    }
+                    batch.clear();
+                }
+                expected++;
+                offset += JournalRecord.SIZE;
+            }
+            if (!batch.isEmpty()) {
+                expected -= batch.size();
+                offset = batchOffset;
+            }
+            if (offset + JournalRecord.SIZE <= buffer.capacity()) {
+                if (i == segments.size() - 1) {
+                    truncate(buffer, offset);
+                } else if (!zeroed(buffer, offset)) {
+                    throw new IllegalStateException("Corrupted journal segment " + path);
+                }
+            }
+            if (expected < fromSequence) {
+                throw new IllegalStateException("Journal ends before sequence " + fromSequence);
+            }
+            nextSequence = expected;
+            segment = buffer;
+            position = offset;
+            syncedPosition = offset;
+        }
+        if (segment == null) {
+            segment = map(segmentPath(nextSequence), config.segmentSize());
+        }
+    }
+
+    private void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var delay = config.groupCommitDelay().toNanos();
+        flusher.scheduleWithFixedDelay(this::flush, delay, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void flush() {
+        try {
+            if (!closed && unsynced > 0) {
+                force();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Journal group commit failed, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Whether the end of a sealed segment was left unused by a batch rolled to the next segment, the next segment
+     * must then start right after its last record.
+     */
+    private static boolean zeroed(MappedByteBuffer buffer, int offset) {
+        for (int i = offset; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void truncate(MappedByteBuffer buffer, int offset) {
+        var dirty = false;
+        for (int i = offset; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            buffer.force();
+        }
+    }
+
+    private void roll() throws IOException {
+        force();
+        segment = map(segmentPath(nextSequence), config.segmentSize());
+        position = 0;
+        syncedPosition = 0;
+    }
+
+    private void force() {
+        if (position > syncedPosition) {
+            segment.force(syncedPosition, position - syncedPosition);
+            syncedPosition = position;
+        }
+        unsynced = 0;
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    static long firstSequence(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            var segments = new ArrayList<Path>();
+            files.filter(path -> {
+                var name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(segments::add);
+            segments.sort(Comparator.comparingLong(Journal::firstSequence));
+            return segments;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.weber.repository.journal;
+
+import java.time.Duration;
+
+/**
+ * With {@link FsyncPolicy#GROUP} appends are forced once groupCommitSize of them are pending or once
+ * groupCommitDelay elapsed, whichever comes first.
+ */
+public record JournalConfig(long segmentSize, FsyncPolicy fsyncPolicy, int groupCommitSize, Duration groupCommitDelay) {
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    public static final Duration DEFAULT_GROUP_COMMIT_DELAY = Duration.ofMillis(10);
+
+    public JournalConfig {
+        if (segmentSize < JournalRecord.SIZE || segmentSize % JournalRecord.SIZE != 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be a multiple of " + JournalRecord.SIZE + " bytes below 2GB");
+        }
+        if (groupCommitSize <= 0) {
+            throw new IllegalArgumentException("Group commit size must be positive");
+        }
+        if (groupCommitDelay.isNegative() || groupCommitDelay.isZero()) {
+            throw new IllegalArgumentException("Group commit delay must be positive");
+        }
+    }
+
+    public JournalConfig(long segmentSize, FsyncPolicy fsyncPolicy, int groupCommitSize) {
+        this(segmentSize, fsyncPolicy, groupCommitSize, DEFAULT_GROUP_COMMIT_DELAY);
+    }
+
+    public static JournalConfig defaults() {
+        return new JournalConfig(DEFAULT_SEGMENT_SIZE, FsyncPolicy.GROUP, 64);
+    }
+}
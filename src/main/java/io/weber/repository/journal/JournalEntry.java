@@ -0,0 +1,6 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Transaction;
+
+public record JournalEntry(long sequence, Transaction transaction) {
+}
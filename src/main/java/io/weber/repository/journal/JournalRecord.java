@@ -0,0 +1,88 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed size binary layout of a journal record, every field is written at an absolute offset so a record
+ * is encoded without allocating. The checksum moves the buffer position, callers own the buffer.
+ * A record written as part of a batch is flagged as continued until the last record of the batch.
+ */
+final class JournalRecord {
+    static final int SIZE = 64;
+
+    private static final int SEQUENCE = 0;
+    private static final int ACCOUNT_MOST = 8;
+    private static final int ACCOUNT_LEAST = 16;
+    private static final int EPOCH_DAY = 24;
+    private static final int TYPE = 28;
+    private static final int CONTINUED = 29;
+    private static final int AMOUNT = 32;
+    private static final int BALANCE = 40;
+    private static final int CHECKSUM = 48;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private JournalRecord() {
+    }
+
+    /**
+     * Throws the exception {@link #write} would throw for a transaction that can't be encoded, before anything is written.
+     */
+    static void check(Transaction transaction) {
+        Math.toIntExact(transaction.date().toEpochDay());
+        Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY);
+        Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY);
+    }
+
+    static void write(ByteBuffer buffer, int offset, long sequence, Transaction transaction, boolean continued, CRC32C crc) {
+        buffer.putLong(offset + SEQUENCE, sequence);
+        buffer.putLong(offset + ACCOUNT_MOST, transaction.accountId().getMostSignificantBits());
+        buffer.putLong(offset + ACCOUNT_LEAST, transaction.accountId().getLeastSignificantBits());
+        buffer.putInt(offset + EPOCH_DAY, Math.toIntExact(transaction.date().toEpochDay()));
+        buffer.put(offset + TYPE, (byte) transaction.type().ordinal());
+        buffer.put(offset + CONTINUED, (byte) (continued ? 1 : 0));
+        buffer.putLong(offset + AMOUNT, Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY));
+        buffer.putLong(offset + BALANCE, Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY));
+        buffer.putInt(offset + CHECKSUM, checksum(buffer, offset, crc));
+    }
+
+    static boolean isValid(ByteBuffer buffer, int offset, CRC32C crc) {
+        return buffer.getInt(offset + CHECKSUM) == checksum(buffer, offset, crc)
+                && buffer.get(offset + TYPE) >= 0 && buffer.get(offset + TYPE) < TYPES.length;
+    }
+
+    static long sequence(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + SEQUENCE);
+    }
+
+    static boolean continued(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + CONTINUED) != 0;
+    }
+
+    static UUID accountId(ByteBuffer buffer, int offset) {
+        return new UUID(buffer.getLong(offset + ACCOUNT_MOST), buffer.getLong(offset + ACCOUNT_LEAST));
+    }
+
+    static JournalEntry read(ByteBuffer buffer, int offset) {
+        return new JournalEntry(sequence(buffer, offset), new Transaction(accountId(buffer, offset),
+                LocalDate.ofEpochDay(buffer.getInt(offset + EPOCH_DAY)),
+                Money.toBigDecimal(buffer.getLong(offset + AMOUNT)),
+                TYPES[buffer.get(offset + TYPE)],
+                Money.toBigDecimal(buffer.getLong(offset + BALANCE))));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, CRC32C crc) {
+        crc.reset();
+        buffer.limit(offset + CHECKSUM).position(offset);
+        crc.update(buffer);
+        buffer.limit(buffer.capacity());
+        return (int) crc.getValue();
+    }
+}
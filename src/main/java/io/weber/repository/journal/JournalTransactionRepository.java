@@ -0,0 +1,305 @@
+package io.weber.repository.journal;
+
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.repository.TransactionFactory;
+import io.weber.repository.TransactionRepository;
+import io.weber.repository.TransferFactory;
+import io.weber.service.Transaction;
+import io.weber.service.Transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Durable repository: every transaction is written to the journal before it becomes visible in the in memory
+ * columnar index, which is rebuilt from the journal when the repository is opened.
+ * {@link #compact()} snapshots the last transaction of every account and archives the segments it covers, a restart
+ * then loads the snapshot and only replays the journal tail. The history older than the snapshot is read back from
+ * the segments in a single scan the first time a restored account is queried, and kept in a second columnar index;
+ * statements of restored accounts then cost O(log n + k) like any other.
+ */
+public class JournalTransactionRepository implements TransactionRepository, Closeable {
+    private static final String ARCHIVE = "archive";
+    private static final System.Logger LOGGER = System.getLogger(JournalTransactionRepository.class.getName());
+
+    private final ColumnarTransactionRepository index = new ColumnarTransactionRepository();
+    private final Map<UUID, JournalEntry> heads = new ConcurrentHashMap<>();
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final Lock compactionLock = new ReentrantLock();
+    private final Path directory;
+    private final long restoredSequence;
+    private final Set<UUID> restoredAccounts;
+    private final long replayedRecords;
+    private final Journal journal;
+    private volatile RestoredHistory restoredHistory;
+
+    public JournalTransactionRepository(Path directory, JournalConfig config) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        var snapshot = Snapshot.latest(directory);
+        snapshot.ifPresent(image -> heads.putAll(image.heads()));
+        this.restoredSequence = snapshot.map(Snapshot::sequence).orElse(0L);
+        this.restoredAccounts = Set.copyOf(heads.keySet());
+        var replayed = new long[1];
+        this.journal = Journal.open(directory, config, restoredSequence + 1, entry -> {
+            index.addTransaction(entry.transaction());
+            heads.put(entry.transaction().accountId(), entry);
+            replayed[0]++;
+        });
+        this.replayedRecords = replayed[0];
+    }
+
+    @Override
+    public Transaction addTransaction(Transaction transaction) {
+        return appendTransaction(transaction.accountId(), lastTransaction -> transaction);
+    }
+
+    @Override
+    public Optional<Transaction> getLastTransaction(UUID id) {
+        var head = heads.get(id);
+        return head == null ? Optional.empty() : Optional.of(head.transaction());
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(UUID id) {
+        if (!restoredAccounts.contains(id)) {
+            return index.getAllTransactions(id);
+        }
+        return concat(restoredHistory().transactions().getAllTransactions(id), index.getAllTransactions(id));
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, LocalDate from, LocalDate to) {
+        if (!restoredAccounts.contains(id)) {
+            return index.getTransactions(id, from, to);
+        }
+        return concat(restoredHistory().transactions().getTransactions(id, from, to), index.getTransactions(id, from, to));
+    }
+
+    @Override
+    public List<Transaction> getTransactions(UUID id, int cursor, int limit) {
+        if (!restoredAccounts.contains(id)) {
+            return index.getTransactions(id, cursor, limit);
+        }
+        var restored = restoredHistory();
+        var restoredSize = restored.sizes().getOrDefault(id, 0);
+        var page = restored.transactions().getTransactions(id, cursor, limit);
+        if (page.size() == limit) {
+            return page;
+        }
+        var tailCursor = Math.max(cursor, restoredSize) - restoredSize;
+        return concat(page, index.getTransactions(id, tailCursor, limit - page.size()));
+    }
+
+    @Override
+    public <E1 extends Exception, E2 extends Exception> Transaction appendTransaction(UUID id, TransactionFactory<E1, E2> factory)
+            throws E1, E2 {
+        snapshotLock.readLock().lock();
+        try {
+            return index.<E1, E2>appendTransaction(id, ignored -> {
+                var transaction = factory.create(getLastTransaction(id));
+                return transaction == null ? null : journaled(id, transaction);
+            });
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+        snapshotLock.readLock().lock();
+        try {
+            return index.appendTransactions(id, ignored -> {
+                var transactions = factory.apply(getLastTransaction(id));
+                if (!transactions.isEmpty()) {
+                    journaled(id, transactions);
+                }
+                return transactions;
+            });
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The two legs are journaled as one batch while both accounts are locked, a restart replays both or neither.
+     */
+    @Override
+    public Transfer appendTransfer(UUID from, UUID to, TransferFactory factory) {
+        snapshotLock.readLock().lock();
+        try {
+            return index.appendTransfer(from, to, (ignoredFrom, ignoredTo) -> {
+                var transfer = factory.create(getLastTransaction(from), getLastTransaction(to));
+                if (transfer != null && transfer.belongsTo(from, to)) {
+                    try {
+                        var sequence = journal.append(List.of(transfer.outgoing(), transfer.incoming()));
+                        heads.put(from, new JournalEntry(sequence, transfer.outgoing()));
+                        heads.put(to, new JournalEntry(sequence + 1, transfer.incoming()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return transfer;
+            });
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of every account head at the current journal sequence, removes older snapshots and archives
+     * the journal segments fully covered by it. Appends are only paused while the heads are copied, compactions run
+     * one at a time.
+     */
+    public Path compact() throws IOException {
+        compactionLock.lock();
+        try {
+            Snapshot snapshot;
+            snapshotLock.writeLock().lock();
+            try {
+                journal.sync();
+                snapshot = new Snapshot(journal.lastSequence(), Map.copyOf(heads));
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            var path = snapshot.write(directory);
+            for (var older : Snapshot.snapshots(directory)) {
+                if (Snapshot.sequenceOf(older) < snapshot.sequence()) {
+                    Files.delete(older);
+                }
+            }
+            snapshotLock.writeLock().lock();
+            try {
+                journal.archive(snapshot.sequence(), directory.resolve(ARCHIVE));
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            return path;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Compacts periodically, a failed compaction is logged and the next one still runs.
+     */
+    public ScheduledFuture<?> scheduleCompaction(ScheduledExecutorService scheduler, Duration period) {
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Journal compaction of " + directory + " failed", e);
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Number of journal records replayed when the repository was opened.
+     */
+    public long replayedRecords() {
+        return replayedRecords;
+    }
+
+    public void sync() {
+        journal.sync();
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Loads the records covered by the snapshot the first time a restored account is queried, the segments are
+     * scanned once for every account.
+     */
+    private RestoredHistory restoredHistory() {
+        var restored = restoredHistory;
+        if (restored != null) {
+            return restored;
+        }
+        synchronized (this) {
+            if (restoredHistory == null) {
+                var transactions = new ColumnarTransactionRepository();
+                var sizes = new HashMap<UUID, Integer>();
+                snapshotLock.readLock().lock();
+                try {
+                    var segments = new ArrayList<>(Journal.segments(directory));
+                    var archive = directory.resolve(ARCHIVE);
+                    if (Files.isDirectory(archive)) {
+                        segments.addAll(Journal.segments(archive));
+                    }
+                    segments.sort(Comparator.comparingLong(Journal::firstSequence));
+                    Journal.scan(segments, restoredSequence, entry -> {
+                        transactions.addTransaction(entry.transaction());
+                        sizes.merge(entry.transaction().accountId(), 1, Integer::sum);
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    snapshotLock.readLock().unlock();
+                }
+                restoredHistory = new RestoredHistory(transactions, Map.copyOf(sizes));
+            }
+            return restoredHistory;
+        }
+    }
+
+    private static List<Transaction> concat(List<Transaction> older, List<Transaction> newer) {
+        if (older.isEmpty()) {
+            return newer;
+        }
+        var history = new ArrayList<Transaction>(older.size() + newer.size());
+        history.addAll(older);
+        history.addAll(newer);
+        return Collections.unmodifiableList(history);
+    }
+
+    private Transaction journaled(UUID id, Transaction transaction) {
+        journaled(id, List.of(transaction));
+        return transaction;
+    }
+
+    /**
+     * Journals the transactions as one batch, a restart replays all of them or none.
+     */
+    private void journaled(UUID id, List<Transaction> transactions) {
+        for (var transaction : transactions) {
+            if (!transaction.accountId().equals(id)) {
+                throw new IllegalArgumentException("Transaction does not belong to account " + id);
+            }
+        }
+        try {
+            var sequence = journal.append(transactions);
+            heads.put(id, new JournalEntry(sequence + transactions.size() - 1, transactions.get(transactions.size() - 1)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record RestoredHistory(ColumnarTransactionRepository transactions, Map<UUID, Integer> sizes) {
+    }
+}
@@ -0,0 +1,134 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact image of the last journaled transaction of every account, taken at a given journal sequence.
+ * The file is a header, one fixed size entry per account and a CRC32C of everything before it.
+ */
+record Snapshot(long sequence, Map<UUID, JournalEntry> heads) {
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snapshot";
+    private static final long MAGIC = 0x5745424552534E50L;
+    private static final int HEADER_SIZE = Long.BYTES * 2 + Integer.BYTES;
+    private static final int ENTRY_SIZE = 48;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    Path write(Path directory) throws IOException {
+        var target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        var temporary = directory.resolve(target.getFileName() + ".tmp");
+        var crc = new CRC32C();
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putLong(MAGIC).putLong(sequence).putInt(heads.size());
+            for (var head : heads.values()) {
+                if (buffer.remaining() < ENTRY_SIZE) {
+                    flush(channel, buffer, crc);
+                }
+                var transaction = head.transaction();
+                buffer.putLong(transaction.accountId().getMostSignificantBits())
+                        .putLong(transaction.accountId().getLeastSignificantBits())
+                        .putLong(head.sequence())
+                        .putInt(Math.toIntExact(transaction.date().toEpochDay()))
+                        .putInt(transaction.type().ordinal())
+                        .putLong(Money.toCents(transaction.amount(), RoundingMode.UNNECESSARY))
+                        .putLong(Money.toCents(transaction.accountBalance(), RoundingMode.UNNECESSARY));
+            }
+            flush(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Loads the most recent snapshot of the directory whose checksum is valid.
+     */
+    static Optional<Snapshot> latest(Path directory) throws IOException {
+        var snapshots = snapshots(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            var snapshot = read(snapshots.get(i));
+            if (snapshot.isPresent()) {
+                return snapshot;
+            }
+        }
+        return Optional.empty();
+    }
+
+    static List<Path> snapshots(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            var snapshots = new ArrayList<Path>();
+            files.filter(path -> {
+                var name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(snapshots::add);
+            snapshots.sort(Comparator.comparing(path -> path.getFileName().toString()));
+            return snapshots;
+        }
+    }
+
+    static long sequenceOf(Path snapshot) {
+        var name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static Optional<Snapshot> read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE + Integer.BYTES || buffer.getLong(0) != MAGIC) {
+            return Optional.empty();
+        }
+        var crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(buffer.capacity() - Integer.BYTES));
+        var count = buffer.getInt(Long.BYTES * 2);
+        if ((int) crc.getValue() != buffer.getInt(buffer.capacity() - Integer.BYTES)
+                || buffer.capacity() != HEADER_SIZE + (long) count * ENTRY_SIZE + Integer.BYTES) {
+            return Optional.empty();
+        }
+        var heads = new HashMap<UUID, JournalEntry>(count * 2);
+        for (int i = 0, offset = HEADER_SIZE; i < count; i++, offset += ENTRY_SIZE) {
+            var accountId = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+            var transaction = new Transaction(accountId, LocalDate.ofEpochDay(buffer.getInt(offset + 24)),
+                    Money.toBigDecimal(buffer.getLong(offset + 32)), TYPES[buffer.getInt(offset + 28)],
+                    Money.toBigDecimal(buffer.getLong(offset + 40)));
+            heads.put(accountId, new JournalEntry(buffer.getLong(offset + 16), transaction));
+        }
+        return Optional.of(new Snapshot(buffer.getLong(Long.BYTES), heads));
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
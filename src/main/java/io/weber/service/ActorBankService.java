@@ -0,0 +1,175 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.printer.AccountStatementPrinter;
+import io.weber.repository.AccountRepository;
+import io.weber.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Every account is owned by a mailbox drained by at most one task at a time on the given executor, so the operations
+ * of an account run one after the other in submission order without any lock and callers never block.
+ * The mailbox keeps the balance of its account once loaded, the service must be the only writer of its accounts.
+ * A mailbox is only created for an existing account, the first operation of an account checks it on the caller.
+ */
+public class ActorBankService implements AsyncBankService {
+    private static final int DRAIN_BATCH = 256;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountStatementPrinter printer;
+    private final Executor executor;
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public ActorBankService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                            AccountStatementPrinter printer, Executor executor) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.printer = printer;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Transaction> deposit(UUID id, BigDecimal amount) {
+        return submit(id, mailbox -> mailbox.apply(TransactionType.DEPOSIT, amount));
+    }
+
+    @Override
+    public CompletableFuture<Transaction> withdraw(UUID id, BigDecimal amount) {
+        return submit(id, mailbox -> mailbox.apply(TransactionType.WITHDRAW, amount));
+    }
+
+    @Override
+    public CompletableFuture<Void> printAccountStatement(UUID id) {
+        return submit(id, mailbox -> {
+            mailbox.checkAccount();
+            printer.print(transactionRepository.getAllTransactions(id));
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(UUID id, Operation<T> operation) {
+        var future = new CompletableFuture<T>();
+        var mailbox = mailboxes.get(id);
+        if (mailbox == null) {
+            if (!accountRepository.ifAccountExist(id)) {
+                future.completeExceptionally(new NotFoundAccountException("Account id not found"));
+                return future;
+            }
+            mailbox = mailboxes.computeIfAbsent(id, Mailbox::new);
+        }
+        var owner = mailbox;
+        Runnable task = () -> {
+            try {
+                future.complete(operation.run(owner));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            mailbox.enqueue(task);
+        } catch (RuntimeException e) {
+            if (mailbox.tasks.remove(task)) {
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @FunctionalInterface
+    private interface Operation<T> {
+        T run(Mailbox mailbox) throws Exception;
+    }
+
+    private final class Mailbox implements Runnable {
+        private final UUID id;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long balance = -1;
+
+        private Mailbox(UUID id) {
+            this.id = id;
+        }
+
+        private void enqueue(Runnable task) {
+            tasks.offer(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        /**
+         * Drains a bounded batch so a busy account does not monopolize a worker, then hands the rest back to the
+         * executor. A task enqueued after the last poll sees scheduled cleared and schedules the mailbox itself.
+         */
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < DRAIN_BATCH; i++) {
+                    var task = tasks.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    task.run();
+                }
+            } finally {
+                scheduled.set(false);
+                if (!tasks.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void checkAccount() throws NotFoundAccountException {
+            if (!accountRepository.ifAccountExist(id)) {
+                throw new NotFoundAccountException("Account id not found");
+            }
+        }
+
+        private Transaction apply(TransactionType type, BigDecimal amount)
+                throws NotFoundAccountException, InvalidTransactionException {
+            checkAccount();
+            if (amount.signum() <= 0) {
+                throw new InvalidTransactionException("Amount can't be negative or zero");
+            }
+            if (balance < 0) {
+                balance = transactionRepository.getLastTransaction(id)
+                        .map(transaction -> Money.toCents(transaction.accountBalance()))
+                        .orElse(0L);
+            }
+            var cents = Money.toCents(amount);
+            var next = type.isCredit() ? Money.add(balance, cents) : Money.subtract(balance, cents);
+            if (next < 0) {
+                throw new InvalidTransactionException("Balance can't be negative");
+            }
+            var transaction = transactionRepository.addTransaction(new Transaction(id, LocalDate.now(),
+                    Money.toBigDecimal(cents), type, Money.toBigDecimal(next)));
+            balance = next;
+            return transaction;
+        }
+    }
+}
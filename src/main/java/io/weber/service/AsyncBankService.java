@@ -0,0 +1,15 @@
+package io.weber.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking variant of {@link BankService}, failures complete the future exceptionally with the exceptions the
+ * blocking service throws.
+ */
+public interface AsyncBankService {
+    CompletableFuture<Transaction> deposit(UUID id, BigDecimal amount);
+    CompletableFuture<Transaction> withdraw(UUID id, BigDecimal amount);
+    CompletableFuture<Void> printAccountStatement(UUID id);
+}
@@ -0,0 +1,15 @@
+package io.weber.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record BankCommand(UUID accountId, TransactionType type, BigDecimal amount) {
+
+    public static BankCommand deposit(UUID accountId, BigDecimal amount) {
+        return new BankCommand(accountId, TransactionType.DEPOSIT, amount);
+    }
+
+    public static BankCommand withdraw(UUID accountId, BigDecimal amount) {
+        return new BankCommand(accountId, TransactionType.WITHDRAW, amount);
+    }
+}
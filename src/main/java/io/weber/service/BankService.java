@@ -5,6 +5,9 @@ import io.weber.exception.NotFoundAccountException;
 import io.weber.exception.OverdraftException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public interface BankService {
@@ -13,5 +16,43 @@ public interface BankService {
             ,InvalidTransactionException, OverdraftException;
     void printAccountStatement(UUID id) throws NotFoundAccountException;
 
+    /**
+     * Moves the amount from one account to the other under the same no overdraft rule as withdraw, recording a
+     * TRANSFER_OUT and a TRANSFER_IN transaction.
+     */
+    Transfer transfer(UUID from, UUID to, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException;
+
+    /**
+     * Prints the transactions dated between from and to inclusive.
+     */
+    void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException;
+
+    /**
+     * Prints at most pageSize transactions starting at the cursor and returns the cursor of the next page,
+     * or -1 when the history has no more transactions.
+     */
+    int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException;
+
+    /**
+     * Applies every command and returns one result per command in the same order, a rejected command
+     * never aborts the rest of the batch.
+     */
+    default List<TransactionResult> execute(List<BankCommand> commands) {
+        var results = new ArrayList<TransactionResult>(commands.size());
+        for (var command : commands) {
+            try {
+                results.add(new TransactionResult.Accepted(command.type() == TransactionType.DEPOSIT
+                        ? deposit(command.accountId(), command.amount())
+                        : withdraw(command.accountId(), command.amount())));
+            } catch (NotFoundAccountException e) {
+                results.add(TransactionResult.UNKNOWN_ACCOUNT);
+            } catch (InvalidTransactionException e) {
+                results.add(command.amount().signum() <= 0 ? TransactionResult.INVALID_AMOUNT : TransactionResult.OVERDRAFT);
+            } catch (OverdraftException e) {
+                results.add(TransactionResult.OVERDRAFT);
+            }
+        }
+        return results;
+    }
 
 }
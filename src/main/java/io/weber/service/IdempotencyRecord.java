@@ -0,0 +1,10 @@
+package io.weber.service;
+
+import java.time.Instant;
+
+/**
+ * A keyed operation that produced a transaction, persisted by the caller so {@link IdempotentBankService#restore}
+ * can rebuild the deduplication window after a restart.
+ */
+public record IdempotencyRecord(String key, Instant createdAt, Transaction transaction) {
+}
@@ -0,0 +1,217 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Deduplicates retried deposits and withdraws carrying an idempotency key: a key seen within the window returns the
+ * transaction of the first request instead of applying it again. Keys are kept in insertion order, so expired keys
+ * are dropped from the head and the oldest keys are evicted beyond the capacity, which bounds the memory.
+ * A request failing leaves no key behind and can be retried. Concurrent duplicates wait for the first one.
+ * Transactions do not carry their key, every keyed transaction is handed to the recorder so the caller can persist
+ * it and restore the window after a restart.
+ */
+public class IdempotentBankService implements BankService {
+    private final BankService delegate;
+    private final Clock clock;
+    private final long windowMillis;
+    private final int capacity;
+    private final Consumer<IdempotencyRecord> recorder;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final LongAdder replays = new LongAdder();
+
+    public IdempotentBankService(BankService delegate, Duration window, int capacity, Clock clock,
+                                 Consumer<IdempotencyRecord> recorder) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.windowMillis = window.toMillis();
+        this.capacity = capacity;
+        this.clock = clock;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Deposits once per key, a null key is a plain deposit.
+     */
+    public Transaction deposit(String key, UUID id, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException {
+        return this.<NotFoundAccountException, InvalidTransactionException, RuntimeException>keyed(key,
+                new Request(id, TransactionType.DEPOSIT, amount), () -> delegate.deposit(id, amount));
+    }
+
+    /**
+     * Withdraws once per key, a null key is a plain withdraw.
+     */
+    public Transaction withdraw(String key, UUID id, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException, OverdraftException {
+        return this.<NotFoundAccountException, InvalidTransactionException, OverdraftException>keyed(key,
+                new Request(id, TransactionType.WITHDRAW, amount), () -> delegate.withdraw(id, amount));
+    }
+
+    /**
+     * Loads the records still inside the window, typically the ones persisted by the recorder before a restart.
+     */
+    public void restore(Collection<IdempotencyRecord> records) {
+        var now = clock.millis();
+        synchronized (entries) {
+            records.stream()
+                    .sorted(Comparator.comparing(IdempotencyRecord::createdAt))
+                    .filter(record -> record.createdAt().toEpochMilli() + windowMillis > now)
+                    .forEach(record -> {
+                        var transaction = record.transaction();
+                        var request = new Request(transaction.accountId(), transaction.type(), transaction.amount());
+                        entries.remove(record.key());
+                        entries.put(record.key(), new Entry(request, record.createdAt().toEpochMilli(),
+                                CompletableFuture.completedFuture(transaction)));
+                    });
+            evict(now);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            evict(clock.millis());
+            return entries.size();
+        }
+    }
+
+    public long replays() {
+        return replays.sum();
+    }
+
+    @Override
+    public Transaction deposit(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        return delegate.deposit(id, amount);
+    }
+
+    @Override
+    public Transaction withdraw(UUID id, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException, OverdraftException {
+        return delegate.withdraw(id, amount);
+    }
+
+    @Override
+    public Transfer transfer(UUID from, UUID to, BigDecimal amount)
+            throws NotFoundAccountException, InvalidTransactionException {
+        return delegate.transfer(from, to, amount);
+    }
+
+    @Override
+    public void printAccountStatement(UUID id) throws NotFoundAccountException {
+        delegate.printAccountStatement(id);
+    }
+
+    @Override
+    public void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException {
+        delegate.printAccountStatement(id, from, to);
+    }
+
+    @Override
+    public int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException {
+        return delegate.printAccountStatementPage(id, cursor, pageSize);
+    }
+
+    @Override
+    public List<TransactionResult> execute(List<BankCommand> commands) {
+        return delegate.execute(commands);
+    }
+
+    private <E1 extends Exception, E2 extends Exception, E3 extends Exception> Transaction keyed(
+            String key, Request request, Operation<E1, E2, E3> operation) throws E1, E2, E3 {
+        if (key == null) {
+            return operation.run();
+        }
+        while (true) {
+            Entry entry;
+            var leader = false;
+            synchronized (entries) {
+                var now = clock.millis();
+                evict(now);
+                entry = entries.get(key);
+                if (entry == null) {
+                    entry = new Entry(request, now, new CompletableFuture<>());
+                    entries.put(key, entry);
+                    evict(now);
+                    leader = true;
+                } else if (!entry.request().equals(request)) {
+                    throw new IllegalArgumentException("Idempotency key " + key + " was used for another request");
+                }
+            }
+            if (leader) {
+                return lead(key, entry, operation);
+            }
+            var transaction = entry.result().join();
+            if (transaction != null) {
+                replays.increment();
+                return transaction;
+            }
+        }
+    }
+
+    private <E1 extends Exception, E2 extends Exception, E3 extends Exception> Transaction lead(
+            String key, Entry entry, Operation<E1, E2, E3> operation) throws E1, E2, E3 {
+        Transaction transaction = null;
+        try {
+            transaction = operation.run();
+            recorder.accept(new IdempotencyRecord(key, clock.instant(), transaction));
+            return transaction;
+        } finally {
+            if (transaction == null) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+            }
+            entry.result().complete(transaction);
+        }
+    }
+
+    /**
+     * Drops the expired keys from the head, then the oldest keys beyond the capacity.
+     */
+    private void evict(long now) {
+        var iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.createdAt() + windowMillis > now && entries.size() <= capacity) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation<E1 extends Exception, E2 extends Exception, E3 extends Exception> {
+        Transaction run() throws E1, E2, E3;
+    }
+
+    /**
+     * Amounts are compared in cents so a retry sending 10 or 10.00 is the same request.
+     */
+    private record Request(UUID accountId, TransactionType type, long cents) {
+        private Request(UUID accountId, TransactionType type, BigDecimal amount) {
+            this(accountId, type, amount == null || amount.signum() <= 0 ? 0 : Money.toCents(amount));
+        }
+    }
+
+    private record Entry(Request request, long createdAt, CompletableFuture<Transaction> result) {
+    }
+}
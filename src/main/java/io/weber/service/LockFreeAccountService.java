@@ -0,0 +1,300 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.printer.AccountStatementPrinter;
+import io.weber.repository.AccountRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Ledger engine where every account is a single atomically swapped head. The head links to the previous one,
+ * so the history is an immutable chain and a deposit or a withdraw commits with one compare-and-set.
+ * A transfer is a double compare-and-set: a descriptor is installed on both heads in account id order, then decided
+ * and replaced by the two legs. A thread meeting a descriptor completes it before going on, so transfers are atomic
+ * and never block.
+ * Every entry also holds a jump pointer to an older entry, chosen so that any entry is reached from the head in
+ * O(log n) steps, and dates never decrease along the chain: date-range and page statements seek their last
+ * transaction then only walk the transactions they print.
+ */
+public class LockFreeAccountService implements BankService {
+
+    private final AccountRepository accountRepository;
+    private final AccountStatementPrinter printer;
+    private final Map<UUID, AtomicReference<Head>> heads = new ConcurrentHashMap<>();
+
+    public LockFreeAccountService(AccountRepository accountRepository, AccountStatementPrinter printer) {
+        this.accountRepository = accountRepository;
+        this.printer = printer;
+    }
+
+    @Override
+    public Transaction deposit(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        validateInput(id, amount);
+        var cents = Money.toCents(amount);
+        return commit(id, TransactionType.DEPOSIT, cents, Money.toBigDecimal(cents), LocalDate.now());
+    }
+
+    @Override
+    public Transaction withdraw(UUID id, BigDecimal amount) throws NotFoundAccountException
+            , InvalidTransactionException, OverdraftException {
+        validateInput(id, amount);
+        var cents = Money.toCents(amount);
+        var transaction = commit(id, TransactionType.WITHDRAW, cents, Money.toBigDecimal(cents), LocalDate.now());
+        if (transaction == null) {
+            throw new InvalidTransactionException("Balance can't be negative");
+        }
+        return transaction;
+    }
+
+    @Override
+    public Transfer transfer(UUID from, UUID to, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        validateInput(from, amount);
+        checkAccount(to);
+        if (from.equals(to)) {
+            throw new InvalidTransactionException("Transfer accounts must be different");
+        }
+        var cents = Money.toCents(amount);
+        var amountScale = Money.toBigDecimal(cents);
+        var date = LocalDate.now();
+        var fromHead = headOf(from);
+        var toHead = headOf(to);
+        while (true) {
+            var currentFrom = current(fromHead);
+            var currentTo = current(toHead);
+            var fromBalance = Money.subtract(balanceOf(currentFrom), cents);
+            if (fromBalance < 0) {
+                throw new InvalidTransactionException("Balance can't be negative");
+            }
+            var toBalance = Money.add(balanceOf(currentTo), cents);
+            var outgoing = next(currentFrom, new Transaction(from, dateAfter(currentFrom, date), amountScale,
+                    TransactionType.TRANSFER_OUT, Money.toBigDecimal(fromBalance)), fromBalance);
+            var incoming = next(currentTo, new Transaction(to, dateAfter(currentTo, date), amountScale,
+                    TransactionType.TRANSFER_IN, Money.toBigDecimal(toBalance)), toBalance);
+            var descriptor = from.compareTo(to) < 0
+                    ? new TransferDescriptor(fromHead, currentFrom, outgoing, toHead, currentTo, incoming)
+                    : new TransferDescriptor(toHead, currentTo, incoming, fromHead, currentFrom, outgoing);
+            if (complete(descriptor)) {
+                return new Transfer(outgoing.transaction(), incoming.transaction());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void printAccountStatement(UUID id) throws NotFoundAccountException {
+        checkAccount(id);
+        var head = heads.get(id);
+        printer.print(head == null ? List.of() : history(current(head)));
+    }
+
+    @Override
+    public void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException {
+        checkAccount(id);
+        var head = heads.get(id);
+        var last = seek(head == null ? null : current(head), entry -> entry.transaction().date().isAfter(to));
+        printer.print(walk(last, entry -> !entry.transaction().date().isBefore(from)));
+    }
+
+    @Override
+    public int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException {
+        if (cursor < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Cursor can't be negative and page size must be positive");
+        }
+        checkAccount(id);
+        var head = heads.get(id);
+        var lastSequence = (long) cursor + pageSize;
+        var last = seek(head == null ? null : current(head), entry -> entry.sequence() > lastSequence);
+        var page = walk(last, entry -> entry.sequence() > cursor);
+        printer.print(page);
+        return page.size() < pageSize ? -1 : cursor + page.size();
+    }
+
+    private void checkAccount(UUID id) throws NotFoundAccountException {
+        if (!accountRepository.ifAccountExist(id)) {
+            throw new NotFoundAccountException("Account id not found");
+        }
+    }
+
+    private void validateInput(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        checkAccount(id);
+        if (amount.signum() <= 0) {
+            throw new InvalidTransactionException("Amount can't be negative or zero");
+        }
+    }
+
+    /**
+     * Appends a transaction to the chain of the account, or returns null when a debit would make the balance negative.
+     */
+    private Transaction commit(UUID id, TransactionType type, long cents, BigDecimal amountScale, LocalDate date) {
+        var head = headOf(id);
+        while (true) {
+            var current = current(head);
+            var balance = type.isCredit() ? Money.add(balanceOf(current), cents) : Money.subtract(balanceOf(current), cents);
+            if (balance < 0) {
+                return null;
+            }
+            var next = next(current, new Transaction(id, dateAfter(current, date), amountScale, type,
+                    Money.toBigDecimal(balance)), balance);
+            if (head.compareAndSet(current, next)) {
+                return next.transaction();
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private AtomicReference<Head> headOf(UUID id) {
+        return heads.computeIfAbsent(id, key -> new AtomicReference<>());
+    }
+
+    /**
+     * Returns the last committed entry of the head, completing the transfer installed on it first if any.
+     */
+    private static LedgerEntry current(AtomicReference<Head> head) {
+        while (true) {
+            var value = head.get();
+            if (value instanceof TransferDescriptor descriptor) {
+                complete(descriptor);
+            } else {
+                return (LedgerEntry) value;
+            }
+        }
+    }
+
+    /**
+     * Installs the descriptor on both heads, decides the transfer and replaces the descriptor with the new entries
+     * when it succeeded or with the previous ones when a head moved in between. Any thread may run it, the first
+     * decision wins.
+     */
+    private static boolean complete(TransferDescriptor descriptor) {
+        if (descriptor.status.get() == Status.UNDECIDED) {
+            var installed = install(descriptor, descriptor.firstHead, descriptor.firstExpected)
+                    && install(descriptor, descriptor.secondHead, descriptor.secondExpected);
+            descriptor.status.compareAndSet(Status.UNDECIDED, installed ? Status.SUCCEEDED : Status.FAILED);
+        }
+        var succeeded = descriptor.status.get() == Status.SUCCEEDED;
+        descriptor.firstHead.compareAndSet(descriptor, succeeded ? descriptor.firstNext : descriptor.firstExpected);
+        descriptor.secondHead.compareAndSet(descriptor, succeeded ? descriptor.secondNext : descriptor.secondExpected);
+        return succeeded;
+    }
+
+    private static boolean install(TransferDescriptor descriptor, AtomicReference<Head> head, LedgerEntry expected) {
+        while (true) {
+            var value = head.get();
+            if (value == descriptor) {
+                return true;
+            }
+            if (value instanceof TransferDescriptor other) {
+                complete(other);
+            } else if (value != expected || descriptor.status.get() != Status.UNDECIDED) {
+                return false;
+            } else if (head.compareAndSet(expected, descriptor)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Builds the entry following the current head. The jump pointer skips to the jump of the previous jump when
+     * both spans are equal, otherwise to the previous entry, the skew binary layout of Myers' random access lists.
+     */
+    private static LedgerEntry next(LedgerEntry current, Transaction transaction, long balance) {
+        if (current == null) {
+            return new LedgerEntry(transaction, balance, 1, null, null);
+        }
+        var jump = current;
+        var currentJump = current.jump();
+        if (currentJump != null && currentJump.jump() != null
+                && current.sequence() - currentJump.sequence() == currentJump.sequence() - currentJump.jump().sequence()) {
+            jump = currentJump.jump();
+        }
+        return new LedgerEntry(transaction, balance, current.sequence() + 1, current, jump);
+    }
+
+    /**
+     * Keeps dates in chain order when a commit computed its date before an already committed later one.
+     */
+    private static LocalDate dateAfter(LedgerEntry current, LocalDate date) {
+        return current != null && current.transaction().date().isAfter(date) ? current.transaction().date() : date;
+    }
+
+    /**
+     * Returns the newest entry, from the given one backwards, that is not too recent. Being too recent must hold
+     * for a prefix of the chain walked from the head.
+     */
+    private static LedgerEntry seek(LedgerEntry entry, Predicate<LedgerEntry> tooRecent) {
+        while (entry != null && tooRecent.test(entry)) {
+            entry = entry.jump() != null && tooRecent.test(entry.jump()) ? entry.jump() : entry.previous();
+        }
+        return entry;
+    }
+
+    /**
+     * Collects the entries from the given one backwards while they match, oldest first.
+     */
+    private static List<Transaction> walk(LedgerEntry last, Predicate<LedgerEntry> matches) {
+        var list = new ArrayList<Transaction>();
+        for (var entry = last; entry != null && matches.test(entry); entry = entry.previous()) {
+            list.add(entry.transaction());
+        }
+        Collections.reverse(list);
+        return Collections.unmodifiableList(list);
+    }
+
+    private static long balanceOf(LedgerEntry entry) {
+        return entry == null ? 0 : entry.balance();
+    }
+
+    private static List<Transaction> history(LedgerEntry head) {
+        var list = new ArrayList<Transaction>(head == null ? 0 : (int) head.sequence());
+        for (var entry = head; entry != null; entry = entry.previous()) {
+            list.add(entry.transaction());
+        }
+        Collections.reverse(list);
+        return Collections.unmodifiableList(list);
+    }
+
+    private sealed interface Head permits LedgerEntry, TransferDescriptor {
+    }
+
+    private record LedgerEntry(Transaction transaction, long balance, long sequence, LedgerEntry previous,
+                               LedgerEntry jump) implements Head {
+    }
+
+    private enum Status {
+        UNDECIDED, SUCCEEDED, FAILED
+    }
+
+    /**
+     * Heads are ordered by account id so that two transfers never wait on each other's second head.
+     */
+    private static final class TransferDescriptor implements Head {
+        private final AtomicReference<Head> firstHead;
+        private final LedgerEntry firstExpected;
+        private final LedgerEntry firstNext;
+        private final AtomicReference<Head> secondHead;
+        private final LedgerEntry secondExpected;
+        private final LedgerEntry secondNext;
+        private final AtomicReference<Status> status = new AtomicReference<>(Status.UNDECIDED);
+
+        private TransferDescriptor(AtomicReference<Head> firstHead, LedgerEntry firstExpected, LedgerEntry firstNext,
+                                   AtomicReference<Head> secondHead, LedgerEntry secondExpected, LedgerEntry secondNext) {
+            this.firstHead = firstHead;
+            this.firstExpected = firstExpected;
+            this.firstNext = firstNext;
+            this.secondHead = secondHead;
+            this.secondExpected = secondExpected;
+            this.secondNext = secondNext;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.weber.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed point arithmetic on amounts held as a number of cents in a {@code long}.
+ * Conversions from {@link BigDecimal} round HALF_EVEN to two decimals like the public API always did,
+ * arithmetic throws {@link ArithmeticException} instead of silently overflowing.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return toCents(amount, RoundingMode.HALF_EVEN);
+    }
+
+    public static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        var scaled = amount.setScale(SCALE, roundingMode);
+        if (scaled.precision() > 18) {
+            return scaled.unscaledValue().longValueExact();
+        }
+        return scaled.scaleByPowerOfTen(SCALE).longValue();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+}
@@ -8,11 +8,14 @@ import io.weber.repository.AccountRepository;
 import io.weber.repository.TransactionRepository;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public class NoOverdraftAccountService implements BankService{
+public class NoOverdraftAccountService implements BankService, ResultBankService{
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
@@ -27,24 +30,82 @@ public class NoOverdraftAccountService implements BankService{
 
     @Override
     public Transaction deposit(UUID id, BigDecimal amount) throws NotFoundAccountException,InvalidTransactionException{
-        validateInput(id,amount);
-        var amountScale = amount.setScale(2, RoundingMode.HALF_EVEN);
-        var balance = getLastBalance(id);
-        return addTransaction(id,LocalDate.now(),amountScale,TransactionType.DEPOSIT,balance.add(amountScale));
+        return toTransaction(tryDeposit(id, amount));
     }
 
     @Override
     public Transaction withdraw(UUID id, BigDecimal amount) throws NotFoundAccountException
             ,InvalidTransactionException,OverdraftException {
-        validateInput(id,amount);
-        var amountScale = amount.setScale(2, RoundingMode.HALF_EVEN);
-        var balance = getLastBalance(id);
-        if(balance.equals(BigDecimal.ZERO)){
-            throw new OverdraftException("Balance is empty");
-        } else if (balance.subtract(amountScale).compareTo(BigDecimal.ZERO)<0) {
+        return toTransaction(tryWithdraw(id, amount));
+    }
+
+    @Override
+    public TransactionResult tryDeposit(UUID id, BigDecimal amount) {
+        var rejection = validate(id, amount);
+        if (rejection != null) {
+            return rejection;
+        }
+        try {
+            var cents = Money.toCents(amount);
+            var amountScale = Money.toBigDecimal(cents);
+            return new TransactionResult.Accepted(transactionRepository.appendTransaction(id, lastTransaction -> {
+                var balance = Money.add(getBalance(lastTransaction), cents);
+                return new Transaction(id,LocalDate.now(),amountScale,TransactionType.DEPOSIT,Money.toBigDecimal(balance));
+            }));
+        } catch (ArithmeticException e) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+    }
+
+    @Override
+    public TransactionResult tryWithdraw(UUID id, BigDecimal amount) {
+        var rejection = validate(id, amount);
+        if (rejection != null) {
+            return rejection;
+        }
+        try {
+            var cents = Money.toCents(amount);
+            var amountScale = Money.toBigDecimal(cents);
+            var transaction = transactionRepository.appendTransaction(id, lastTransaction -> {
+                var balance = Money.subtract(getBalance(lastTransaction), cents);
+                if (balance < 0) {
+                    return null;
+                }
+                return new Transaction(id,LocalDate.now(),amountScale,TransactionType.WITHDRAW,Money.toBigDecimal(balance));
+            });
+            return transaction == null ? TransactionResult.OVERDRAFT : new TransactionResult.Accepted(transaction);
+        } catch (ArithmeticException e) {
+            return TransactionResult.INVALID_AMOUNT;
+        }
+    }
+
+    @Override
+    public Transfer transfer(UUID from, UUID to, BigDecimal amount) throws NotFoundAccountException,InvalidTransactionException{
+        checkAccount(from);
+        checkAccount(to);
+        if(amount.signum() <=0){
+            throw new InvalidTransactionException("Amount can't be negative or zero");
+        }
+        if(from.equals(to)){
+            throw new InvalidTransactionException("Transfer accounts must be different");
+        }
+        var cents = Money.toCents(amount);
+        var amountScale = Money.toBigDecimal(cents);
+        var transfer = transactionRepository.appendTransfer(from, to, (lastFrom, lastTo) -> {
+            var fromBalance = Money.subtract(getBalance(lastFrom), cents);
+            if (fromBalance < 0) {
+                return null;
+            }
+            var toBalance = Money.add(getBalance(lastTo), cents);
+            var date = LocalDate.now();
+            return new Transfer(
+                    new Transaction(from,date,amountScale,TransactionType.TRANSFER_OUT,Money.toBigDecimal(fromBalance)),
+                    new Transaction(to,date,amountScale,TransactionType.TRANSFER_IN,Money.toBigDecimal(toBalance)));
+        });
+        if (transfer == null) {
             throw new InvalidTransactionException("Balance can't be negative");
         }
-        return addTransaction(id,LocalDate.now(),amountScale,TransactionType.WITHDRAW,balance.subtract(amountScale));
+        return transfer;
     }
 
     @Override
@@ -56,22 +117,97 @@ public class NoOverdraftAccountService implements BankService{
         printer.print(list);
     }
 
-    private void validateInput(UUID id, BigDecimal amount) throws NotFoundAccountException,InvalidTransactionException{
+    @Override
+    public void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException{
+        checkAccount(id);
+        printer.print(transactionRepository.getTransactions(id, from, to));
+    }
+
+    @Override
+    public int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException{
+        checkAccount(id);
+        var page = transactionRepository.getTransactions(id, cursor, pageSize);
+        printer.print(page);
+        return page.size() < pageSize ? -1 : cursor + page.size();
+    }
+
+    @Override
+    public List<TransactionResult> execute(List<BankCommand> commands) {
+        var results = new TransactionResult[commands.size()];
+        var commandsByAccount = new LinkedHashMap<UUID, List<Integer>>();
+        for (int i = 0; i < results.length; i++) {
+            commandsByAccount.computeIfAbsent(commands.get(i).accountId(), key -> new ArrayList<>()).add(i);
+        }
+        commandsByAccount.forEach((id, indexes) -> {
+            if (!accountRepository.ifAccountExist(id)) {
+                indexes.forEach(index -> results[index] = TransactionResult.UNKNOWN_ACCOUNT);
+                return;
+            }
+            transactionRepository.appendTransactions(id, lastTransaction -> {
+                var balance = getBalance(lastTransaction);
+                var accepted = new ArrayList<Transaction>(indexes.size());
+                for (var index : indexes) {
+                    var command = commands.get(index);
+                    if (command.amount().signum() <= 0) {
+                        results[index] = TransactionResult.INVALID_AMOUNT;
+                        continue;
+                    }
+                    long next;
+                    long cents;
+                    try {
+                        cents = Money.toCents(command.amount());
+                        next = command.type().isCredit()
+                                ? Money.add(balance, cents) : Money.subtract(balance, cents);
+                    } catch (ArithmeticException e) {
+                        results[index] = TransactionResult.INVALID_AMOUNT;
+                        continue;
+                    }
+                    if (next < 0) {
+                        results[index] = TransactionResult.OVERDRAFT;
+                        continue;
+                    }
+                    balance = next;
+                    var transaction = new Transaction(id, LocalDate.now(), Money.toBigDecimal(cents), command.type(),
+                            Money.toBigDecimal(balance));
+                    accepted.add(transaction);
+                    results[index] = new TransactionResult.Accepted(transaction);
+                }
+                return accepted;
+            });
+        });
+        return List.of(results);
+    }
+
+    private void checkAccount(UUID id) throws NotFoundAccountException{
         if(!accountRepository.ifAccountExist(id)){
             throw new NotFoundAccountException("Account id not found");
         }
-        if(amount.compareTo(BigDecimal.ZERO) <=0){
-            throw new InvalidTransactionException("Amount can't be negative or zero");
+    }
+
+    private TransactionResult validate(UUID id, BigDecimal amount){
+        if(!accountRepository.ifAccountExist(id)){
+            return TransactionResult.UNKNOWN_ACCOUNT;
         }
+        if(amount.signum() <=0){
+            return TransactionResult.INVALID_AMOUNT;
+        }
+        return null;
     }
 
-    private BigDecimal getLastBalance(UUID id){
-        var lastTransaction = transactionRepository.getLastTransaction(id);
-        return lastTransaction.map(Transaction::accountBalance).orElse(BigDecimal.ZERO)
-                .setScale(2, RoundingMode.HALF_EVEN);
+    static Transaction toTransaction(TransactionResult result) throws NotFoundAccountException,InvalidTransactionException{
+        if (result instanceof TransactionResult.Accepted accepted) {
+            return accepted.transaction();
+        } else if (result instanceof TransactionResult.UnknownAccount) {
+            throw new NotFoundAccountException("Account id not found");
+        } else if (result instanceof TransactionResult.InvalidAmount) {
+            throw new InvalidTransactionException("Amount can't be negative or zero");
+        } else if (result instanceof TransactionResult.Failed failed) {
+            throw failed.cause();
+        }
+        throw new InvalidTransactionException("Balance can't be negative");
     }
 
-    private Transaction addTransaction(UUID id, LocalDate date, BigDecimal amount, TransactionType type, BigDecimal balance){
-        return transactionRepository.addTransaction(new Transaction(id,date,amount,type,balance));
+    private long getBalance(Optional<Transaction> lastTransaction){
+        return lastTransaction.isPresent() ? Money.toCents(lastTransaction.get().accountBalance()) : 0;
     }
 }
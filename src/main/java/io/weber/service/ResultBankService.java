@@ -0,0 +1,12 @@
+package io.weber.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Deposit and withdraw surface that reports rejections as {@link TransactionResult} values instead of exceptions.
+ */
+public interface ResultBankService {
+    TransactionResult tryDeposit(UUID id, BigDecimal amount);
+    TransactionResult tryWithdraw(UUID id, BigDecimal amount);
+}
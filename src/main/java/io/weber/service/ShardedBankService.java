@@ -0,0 +1,427 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.printer.AccountStatementPrinter;
+import io.weber.repository.AccountRepository;
+import io.weber.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Partitions accounts across shards, each with its own repository and a single worker thread that is the only one
+ * touching it. An account hashes to one of a fixed number of slots and a slot table maps every slot to its shard,
+ * so moving a slot between shards rebalances the load without rehashing the other accounts.
+ * A moved slot is released by its old shard after every operation already queued there, its histories are copied
+ * to the new shard and only then is the slot table switched. Operations reaching the old shard in between are
+ * routed again.
+ * A transfer inside one shard is atomic, across shards it is committed as two legs on their own workers: it cannot
+ * deadlock, but a reader may see the outgoing leg before the incoming one. When the incoming leg fails, the
+ * outgoing one is compensated by crediting the amount back to the debited account.
+ */
+public class ShardedBankService implements BankService, ResultBankService, AutoCloseable {
+    private static final SlotMovedException SLOT_MOVED = new SlotMovedException();
+
+    private final AccountRepository accountRepository;
+    private final Supplier<TransactionRepository> repositories;
+    private final AccountStatementPrinter printer;
+    private final ThreadFactory threadFactory;
+    private final int slotMask;
+    private final Object migrationLock = new Object();
+    private volatile Shard[] shards;
+    private volatile int[] slotTable;
+
+    public ShardedBankService(int shardCount, int slotCount, AccountRepository accountRepository,
+                              Supplier<TransactionRepository> repositories, AccountStatementPrinter printer,
+                              ThreadFactory threadFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (slotCount < shardCount || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two and at least the shard count");
+        }
+        this.accountRepository = accountRepository;
+        this.repositories = repositories;
+        this.printer = printer;
+        this.threadFactory = threadFactory;
+        this.slotMask = slotCount - 1;
+        var initialShards = new Shard[shardCount];
+        var table = new int[slotCount];
+        for (int i = 0; i < shardCount; i++) {
+            initialShards[i] = new Shard(slotCount);
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            table[slot] = slot % shardCount;
+            initialShards[slot % shardCount].owned[slot] = true;
+        }
+        this.shards = initialShards;
+        this.slotTable = table;
+    }
+
+    @Override
+    public Transaction deposit(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        return NoOverdraftAccountService.toTransaction(tryDeposit(id, amount));
+    }
+
+    @Override
+    public Transaction withdraw(UUID id, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        return NoOverdraftAccountService.toTransaction(tryWithdraw(id, amount));
+    }
+
+    @Override
+    public TransactionResult tryDeposit(UUID id, BigDecimal amount) {
+        return this.<TransactionResult, RuntimeException, RuntimeException>route(id, shard -> shard.tracked(id,
+                shard.service.tryDeposit(id, amount)));
+    }
+
+    @Override
+    public TransactionResult tryWithdraw(UUID id, BigDecimal amount) {
+        return this.<TransactionResult, RuntimeException, RuntimeException>route(id, shard -> shard.tracked(id,
+                shard.service.tryWithdraw(id, amount)));
+    }
+
+    @Override
+    public Transfer transfer(UUID from, UUID to, BigDecimal amount) throws NotFoundAccountException, InvalidTransactionException {
+        if (slotTable[slotOf(from)] == slotTable[slotOf(to)]) {
+            var transfer = this.<Transfer, NotFoundAccountException, InvalidTransactionException>route(from, shard -> {
+                if (!shard.owned[slotOf(to)]) {
+                    return null;
+                }
+                var legs = shard.service.transfer(from, to, amount);
+                shard.track(from);
+                shard.track(to);
+                return legs;
+            });
+            if (transfer != null) {
+                return transfer;
+            }
+        }
+        if (!accountRepository.ifAccountExist(from) || !accountRepository.ifAccountExist(to)) {
+            throw new NotFoundAccountException("Account id not found");
+        }
+        if (amount.signum() <= 0) {
+            throw new InvalidTransactionException("Amount can't be negative or zero");
+        }
+        if (from.equals(to)) {
+            throw new InvalidTransactionException("Transfer accounts must be different");
+        }
+        var cents = Money.toCents(amount);
+        var amountScale = Money.toBigDecimal(cents);
+        var date = LocalDate.now();
+        var outgoing = this.<Transaction, RuntimeException, RuntimeException>route(from, shard -> shard.tracked(from,
+                shard.repository.appendTransaction(from, lastTransaction -> {
+                    var balance = Money.subtract(balanceOf(lastTransaction.orElse(null)), cents);
+                    return balance < 0 ? null : new Transaction(from, date, amountScale, TransactionType.TRANSFER_OUT,
+                            Money.toBigDecimal(balance));
+                })));
+        if (outgoing == null) {
+            throw new InvalidTransactionException("Balance can't be negative");
+        }
+        try {
+            return new Transfer(outgoing, credit(to, cents, amountScale, date));
+        } catch (RuntimeException e) {
+            try {
+                credit(from, cents, amountScale, date);
+            } catch (RuntimeException compensation) {
+                e.addSuppressed(compensation);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void printAccountStatement(UUID id) throws NotFoundAccountException {
+        this.<Void, NotFoundAccountException, RuntimeException>route(id, shard -> {
+            shard.service.printAccountStatement(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void printAccountStatement(UUID id, LocalDate from, LocalDate to) throws NotFoundAccountException {
+        this.<Void, NotFoundAccountException, RuntimeException>route(id, shard -> {
+            shard.service.printAccountStatement(id, from, to);
+            return null;
+        });
+    }
+
+    @Override
+    public int printAccountStatementPage(UUID id, int cursor, int pageSize) throws NotFoundAccountException {
+        return this.<Integer, NotFoundAccountException, RuntimeException>route(id,
+                shard -> shard.service.printAccountStatementPage(id, cursor, pageSize));
+    }
+
+    /**
+     * Runs the commands of every shard as one batch on that shard, all shards in parallel. Commands of a slot moved
+     * while the batch was queued are applied one by one afterwards.
+     */
+    @Override
+    public List<TransactionResult> execute(List<BankCommand> commands) {
+        var results = new TransactionResult[commands.size()];
+        var table = slotTable;
+        var current = shards;
+        var indexesByShard = new LinkedHashMap<Integer, List<Integer>>();
+        for (int i = 0; i < results.length; i++) {
+            indexesByShard.computeIfAbsent(table[slotOf(commands.get(i).accountId())], key -> new ArrayList<>()).add(i);
+        }
+        var futures = new LinkedHashMap<List<Integer>, Future<List<TransactionResult>>>();
+        indexesByShard.forEach((shardIndex, indexes) -> {
+            var shard = current[shardIndex];
+            var batch = indexes.stream().map(commands::get).toList();
+            futures.put(indexes, shard.worker.submit(() -> {
+                for (var command : batch) {
+                    if (!shard.owned[slotOf(command.accountId())]) {
+                        throw SLOT_MOVED;
+                    }
+                }
+                var batchResults = shard.service.execute(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    shard.tracked(batch.get(i).accountId(), batchResults.get(i));
+                }
+                return batchResults;
+            }));
+        });
+        futures.forEach((indexes, future) -> {
+            try {
+                var batchResults = this.<List<TransactionResult>, RuntimeException, RuntimeException>await(future);
+                for (int i = 0; i < indexes.size(); i++) {
+                    results[indexes.get(i)] = batchResults.get(i);
+                }
+            } catch (SlotMovedException e) {
+                for (var index : indexes) {
+                    var command = commands.get(index);
+                    results[index] = command.type() == TransactionType.DEPOSIT
+                            ? tryDeposit(command.accountId(), command.amount())
+                            : tryWithdraw(command.accountId(), command.amount());
+                }
+            }
+        });
+        return List.of(results);
+    }
+
+    /**
+     * Moves a slot and the histories of its accounts to another shard.
+     */
+    public void moveSlot(int slot, int targetShard) {
+        synchronized (migrationLock) {
+            var current = shards;
+            var sourceShard = slotTable[slot];
+            if (sourceShard == targetShard) {
+                return;
+            }
+            var source = current[sourceShard];
+            var target = current[targetShard];
+            var histories = this.<Map<UUID, List<Transaction>>, RuntimeException, RuntimeException>await(
+                    source.worker.submit(() -> source.release(slot)));
+            this.<Void, RuntimeException, RuntimeException>await(target.worker.submit(() -> {
+                target.adopt(slot, histories);
+                return null;
+            }));
+            var table = slotTable.clone();
+            table[slot] = targetShard;
+            slotTable = table;
+        }
+    }
+
+    /**
+     * Starts a new shard and moves to it an even share of the slots, taken from the most loaded shards.
+     */
+    public int addShard() {
+        synchronized (migrationLock) {
+            var current = shards;
+            var grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = new Shard(slotMask + 1);
+            shards = grown;
+            var target = current.length;
+            var share = (slotMask + 1) / grown.length;
+            for (int moved = 0; moved < share; moved++) {
+                var counts = new int[grown.length];
+                for (var owner : slotTable) {
+                    counts[owner]++;
+                }
+                var busiest = 0;
+                for (int i = 1; i < current.length; i++) {
+                    if (counts[i] > counts[busiest]) {
+                        busiest = i;
+                    }
+                }
+                for (int slot = slotMask; slot >= 0; slot--) {
+                    if (slotTable[slot] == busiest) {
+                        moveSlot(slot, target);
+                        break;
+                    }
+                }
+            }
+            return target;
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(UUID id) {
+        return slotTable[slotOf(id)];
+    }
+
+    /**
+     * Number of accounts whose history moves with their slot, across every shard.
+     */
+    int trackedAccounts() {
+        var tracked = 0;
+        for (var shard : shards) {
+            tracked += this.<Integer, RuntimeException, RuntimeException>await(shard.worker.submit(shard::trackedAccounts));
+        }
+        return tracked;
+    }
+
+    @Override
+    public void close() {
+        for (var shard : shards) {
+            shard.worker.shutdown();
+        }
+    }
+
+    public int slotOf(UUID id) {
+        var hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & slotMask;
+    }
+
+    private <T, E1 extends Exception, E2 extends Exception> T route(UUID id, ShardTask<T, E1, E2> task) throws E1, E2 {
+        var slot = slotOf(id);
+        while (true) {
+            var shard = shards[slotTable[slot]];
+            try {
+                return this.<T, E1, E2>await(shard.worker.submit(() -> {
+                    if (!shard.owned[slot]) {
+                        throw SLOT_MOVED;
+                    }
+                    return task.run(shard);
+                }));
+            } catch (SlotMovedException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Waits for a task run by a worker. The task can only fail with E1, E2 or an unchecked exception, so its
+     * failure is rethrown as is.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E1 extends Exception, E2 extends Exception> T await(Future<T> future) throws E1, E2 {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (E1) cause;
+        }
+    }
+
+    private Transaction credit(UUID id, long cents, BigDecimal amountScale, LocalDate date) {
+        return this.<Transaction, RuntimeException, RuntimeException>route(id, shard -> shard.tracked(id,
+                shard.repository.appendTransaction(id, lastTransaction -> new Transaction(id, date, amountScale,
+                        TransactionType.TRANSFER_IN,
+                        Money.toBigDecimal(Money.add(balanceOf(lastTransaction.orElse(null)), cents))))));
+    }
+
+    private static long balanceOf(Transaction transaction) {
+        return transaction == null ? 0 : Money.toCents(transaction.accountBalance());
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<T, E1 extends Exception, E2 extends Exception> {
+        T run(Shard shard) throws E1, E2;
+    }
+
+    /**
+     * State of a shard, only read and written by its worker once the service is built.
+     */
+    private final class Shard {
+        private final TransactionRepository repository = repositories.get();
+        private final NoOverdraftAccountService service = new NoOverdraftAccountService(accountRepository, repository, printer);
+        private final ExecutorService worker = Executors.newSingleThreadExecutor(threadFactory);
+        private final boolean[] owned;
+        private final Map<Integer, Set<UUID>> accountsBySlot = new HashMap<>();
+
+        private Shard(int slotCount) {
+            this.owned = new boolean[slotCount];
+        }
+
+        private void track(UUID id) {
+            accountsBySlot.computeIfAbsent(slotOf(id), key -> new HashSet<>()).add(id);
+        }
+
+        /**
+         * Tracks the account only when the result is an appended transaction, a rejected operation leaves no history
+         * to move, and tracking it would keep every unknown id for good.
+         */
+        private <T> T tracked(UUID id, T result) {
+            if (result instanceof Transaction || result instanceof TransactionResult.Accepted) {
+                track(id);
+            }
+            return result;
+        }
+
+        private int trackedAccounts() {
+            return accountsBySlot.values().stream().mapToInt(Set::size).sum();
+        }
+
+        private Map<UUID, List<Transaction>> release(int slot) {
+            owned[slot] = false;
+            var histories = new HashMap<UUID, List<Transaction>>();
+            var accounts = accountsBySlot.remove(slot);
+            if (accounts != null) {
+                for (var id : accounts) {
+                    histories.put(id, List.copyOf(repository.getAllTransactions(id)));
+                }
+            }
+            return histories;
+        }
+
+        /**
+         * A slot coming back keeps the history it left behind, which is a prefix of the adopted one.
+         */
+        private void adopt(int slot, Map<UUID, List<Transaction>> histories) {
+            histories.forEach((id, history) -> {
+                var known = repository.getAllTransactions(id).size();
+                repository.appendTransactions(id, lastTransaction -> history.subList(known, history.size()));
+                track(id);
+            });
+            owned[slot] = true;
+        }
+    }
+
+    private static final class SlotMovedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private SlotMovedException() {
+            super("Slot moved to another shard", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.weber.service;
+
+/**
+ * Outcome of a deposit or a withdraw, rejections are plain values so they can be reported without exceptions.
+ */
+public sealed interface TransactionResult {
+    TransactionResult OVERDRAFT = new Overdraft();
+    TransactionResult INVALID_AMOUNT = new InvalidAmount();
+    TransactionResult UNKNOWN_ACCOUNT = new UnknownAccount();
+
+    record Accepted(Transaction transaction) implements TransactionResult {
+    }
+
+    record Overdraft() implements TransactionResult {
+    }
+
+    record InvalidAmount() implements TransactionResult {
+    }
+
+    record UnknownAccount() implements TransactionResult {
+    }
+
+    /**
+     * The command could not be applied because of an unexpected error, such as a failing repository.
+     */
+    record Failed(RuntimeException cause) implements TransactionResult {
+    }
+}
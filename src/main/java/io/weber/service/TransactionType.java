@@ -1,5 +1,12 @@
 package io.weber.service;
 
 public enum TransactionType {
-    DEPOSIT,WITHDRAW
+    DEPOSIT,WITHDRAW,TRANSFER_OUT,TRANSFER_IN;
+
+    /**
+     * Whether the transaction adds its amount to the account balance.
+     */
+    public boolean isCredit() {
+        return this == DEPOSIT || this == TRANSFER_IN;
+    }
 }
@@ -0,0 +1,15 @@
+package io.weber.service;
+
+import java.util.UUID;
+
+/**
+ * The two legs of a transfer, a TRANSFER_OUT on the debited account and a TRANSFER_IN on the credited one, both
+ * appended atomically with the same date and amount.
+ */
+public record Transfer(Transaction outgoing, Transaction incoming) {
+
+    public boolean belongsTo(UUID from, UUID to) {
+        return outgoing.accountId().equals(from) && incoming.accountId().equals(to)
+                && outgoing.type() == TransactionType.TRANSFER_OUT && incoming.type() == TransactionType.TRANSFER_IN;
+    }
+}
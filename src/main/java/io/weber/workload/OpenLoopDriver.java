@@ -0,0 +1,110 @@
+package io.weber.workload;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.metrics.LatencyHistogram;
+import io.weber.service.BankService;
+import io.weber.service.Money;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link BankService} from a fixed number of threads. Command i is scheduled at {@code i / targetRate}
+ * seconds from the start whether earlier commands completed or not, which is the open loop: a service falling behind
+ * accumulates latency instead of slowing the load down. A target rate of zero or less issues commands as fast as
+ * the threads can. Rejected commands, overdrafts included, are counted apart from failures.
+ */
+public class OpenLoopDriver {
+    private static final long SPIN_NANOS = 50_000;
+
+    private final BankService service;
+    private final int threads;
+    private final double targetRate;
+    private final ThreadFactory threadFactory;
+
+    public OpenLoopDriver(BankService service, int threads, double targetRate, ThreadFactory threadFactory) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.service = service;
+        this.threads = threads;
+        this.targetRate = targetRate;
+        this.threadFactory = threadFactory;
+    }
+
+    public WorkloadReport run(List<WorkloadCommand> commands) throws InterruptedException {
+        var next = new AtomicInteger();
+        var lastCompletion = new AtomicLong();
+        var latency = new LatencyHistogram();
+        var serviceTime = new LatencyHistogram();
+        var rejected = new LongAdder();
+        var unknownAccounts = new LongAdder();
+        var failures = new LongAdder();
+        var interval = targetRate > 0 ? 1e9 / targetRate : 0;
+        var start = System.nanoTime();
+        var workers = new ArrayList<Thread>(threads);
+        for (int i = 0; i < threads; i++) {
+            var worker = threadFactory.newThread(() -> {
+                for (var index = next.getAndIncrement(); index < commands.size(); index = next.getAndIncrement()) {
+                    var scheduled = start + (long) (index * interval);
+                    waitUntil(scheduled);
+                    var issued = System.nanoTime();
+                    if (interval == 0) {
+                        scheduled = issued;
+                    }
+                    try {
+                        execute(commands.get(index));
+                    } catch (InvalidTransactionException | OverdraftException e) {
+                        rejected.increment();
+                    } catch (NotFoundAccountException e) {
+                        unknownAccounts.increment();
+                    } catch (RuntimeException e) {
+                        failures.increment();
+                    }
+                    var completed = System.nanoTime();
+                    latency.record(completed - scheduled);
+                    serviceTime.record(completed - issued);
+                    lastCompletion.accumulateAndGet(completed, Math::max);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (var worker : workers) {
+            worker.join();
+        }
+        return new WorkloadReport(commands.size(), rejected.sum(), unknownAccounts.sum(), failures.sum(),
+                Duration.ofNanos(Math.max(lastCompletion.get() - start, 0)), latency.snapshot(), serviceTime.snapshot());
+    }
+
+    private void execute(WorkloadCommand command)
+            throws InvalidTransactionException, NotFoundAccountException, OverdraftException {
+        switch (command.operation()) {
+            case DEPOSIT -> service.deposit(command.accountId(), Money.toBigDecimal(command.amountCents()));
+            case WITHDRAW -> service.withdraw(command.accountId(), Money.toBigDecimal(command.amountCents()));
+            case STATEMENT -> service.printAccountStatement(command.accountId());
+        }
+    }
+
+    /**
+     * Parks until shortly before the scheduled time and spins the rest, parking alone oversleeps by tens of
+     * microseconds.
+     */
+    private static void waitUntil(long scheduled) {
+        for (var remaining = scheduled - System.nanoTime(); remaining > 0; remaining = scheduled - System.nanoTime()) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
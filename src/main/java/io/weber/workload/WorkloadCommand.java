@@ -0,0 +1,9 @@
+package io.weber.workload;
+
+import java.util.UUID;
+
+/**
+ * One command of a workload, the amount is zero for a statement.
+ */
+public record WorkloadCommand(WorkloadOperation operation, UUID accountId, long amountCents) {
+}
@@ -0,0 +1,34 @@
+package io.weber.workload;
+
+/**
+ * Shape of a generated workload. Accounts are picked with a Zipfian skew, an exponent of 0 being uniform and 1 the
+ * classic hot spot. The deposit, withdraw and statement ratios must add up to 1, and the overdraft ratio is the
+ * share of withdrawals asking for more than the modeled balance.
+ */
+public record WorkloadConfig(long seed, int accounts, double zipfExponent, double depositRatio, double withdrawRatio,
+                             double statementRatio, double overdraftRatio, long maxAmountCents,
+                             long openingBalanceCents) {
+
+    public WorkloadConfig {
+        if (accounts <= 0) {
+            throw new IllegalArgumentException("Account count must be positive");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent can't be negative");
+        }
+        if (depositRatio < 0 || withdrawRatio < 0 || statementRatio < 0
+                || Math.abs(depositRatio + withdrawRatio + statementRatio - 1) > 1e-9) {
+            throw new IllegalArgumentException("Operation ratios must be positive and add up to 1");
+        }
+        if (overdraftRatio < 0 || overdraftRatio > 1) {
+            throw new IllegalArgumentException("Overdraft ratio must be between 0 and 1");
+        }
+        if (maxAmountCents <= 0 || openingBalanceCents < 0) {
+            throw new IllegalArgumentException("Maximum amount must be positive and opening balance can't be negative");
+        }
+    }
+
+    public static WorkloadConfig defaults(long seed) {
+        return new WorkloadConfig(seed, 10_000, 0.99, 0.45, 0.45, 0.10, 0.05, 100_000, 1_000_000);
+    }
+}
@@ -0,0 +1,92 @@
+package io.weber.workload;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates the same commands for the same configuration. Accounts, their popularity and every command are drawn
+ * from the seed, and the generator models the balance each account would have if the commands were applied in
+ * order, so withdrawals overdraft in the configured ratio. A withdrawal of an empty account becomes a deposit.
+ * Commands applied concurrently may be reordered, the overdraft ratio is then only approached.
+ */
+public class WorkloadGenerator {
+    private final WorkloadConfig config;
+    private final SplittableRandom random;
+    private final List<UUID> accounts;
+    private final ZipfianDistribution popularity;
+    private final long[] balances;
+
+    public WorkloadGenerator(WorkloadConfig config) {
+        this.config = config;
+        var seeds = new SplittableRandom(config.seed());
+        var identities = new ArrayList<UUID>(config.accounts());
+        for (int i = 0; i < config.accounts(); i++) {
+            identities.add(new UUID(seeds.nextLong(), seeds.nextLong()));
+        }
+        this.accounts = Collections.unmodifiableList(identities);
+        this.popularity = new ZipfianDistribution(config.accounts(), config.zipfExponent(), seeds.nextLong());
+        this.random = seeds.split();
+        this.balances = new long[config.accounts()];
+    }
+
+    public List<UUID> accounts() {
+        return accounts;
+    }
+
+    /**
+     * Accounts ordered from the most to the least popular.
+     */
+    public List<UUID> accountsByPopularity() {
+        var ordered = new ArrayList<UUID>(accounts.size());
+        for (int rank = 0; rank < accounts.size(); rank++) {
+            ordered.add(accounts.get(popularity.accountOfRank(rank)));
+        }
+        return ordered;
+    }
+
+    /**
+     * One deposit of the opening balance per account, nothing when the opening balance is zero.
+     */
+    public List<WorkloadCommand> openingDeposits() {
+        if (config.openingBalanceCents() == 0) {
+            return List.of();
+        }
+        var deposits = new ArrayList<WorkloadCommand>(accounts.size());
+        for (int account = 0; account < accounts.size(); account++) {
+            balances[account] += config.openingBalanceCents();
+            deposits.add(new WorkloadCommand(WorkloadOperation.DEPOSIT, accounts.get(account), config.openingBalanceCents()));
+        }
+        return deposits;
+    }
+
+    public List<WorkloadCommand> generate(int count) {
+        var commands = new ArrayList<WorkloadCommand>(count);
+        for (int i = 0; i < count; i++) {
+            commands.add(next());
+        }
+        return commands;
+    }
+
+    public WorkloadCommand next() {
+        var account = popularity.sample(random);
+        var accountId = accounts.get(account);
+        var operation = random.nextDouble();
+        if (operation >= config.depositRatio() + config.withdrawRatio()) {
+            return new WorkloadCommand(WorkloadOperation.STATEMENT, accountId, 0);
+        }
+        var amount = 1 + random.nextLong(config.maxAmountCents());
+        if (operation < config.depositRatio() || balances[account] == 0) {
+            balances[account] += amount;
+            return new WorkloadCommand(WorkloadOperation.DEPOSIT, accountId, amount);
+        }
+        if (random.nextDouble() < config.overdraftRatio()) {
+            return new WorkloadCommand(WorkloadOperation.WITHDRAW, accountId, balances[account] + amount);
+        }
+        amount = 1 + random.nextLong(Math.min(balances[account], config.maxAmountCents()));
+        balances[account] -= amount;
+        return new WorkloadCommand(WorkloadOperation.WITHDRAW, accountId, amount);
+    }
+}
@@ -0,0 +1,7 @@
+package io.weber.workload;
+
+public enum WorkloadOperation {
+    DEPOSIT,
+    WITHDRAW,
+    STATEMENT
+}
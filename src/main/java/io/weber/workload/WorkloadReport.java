@@ -0,0 +1,36 @@
+package io.weber.workload;
+
+import io.weber.metrics.HistogramSnapshot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Outcome of a driven workload. Latency is measured from the time a command was scheduled, so it includes the time
+ * spent waiting behind a slow service, service time only from the time it was issued.
+ */
+public record WorkloadReport(long commands, long rejected, long unknownAccounts, long failures, Duration elapsed,
+                             HistogramSnapshot latency, HistogramSnapshot serviceTime) {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public double throughput() {
+        return elapsed.isZero() ? 0 : commands * 1e9 / elapsed.toNanos();
+    }
+
+    public void write(Appendable out) throws IOException {
+        out.append(String.format(Locale.ROOT, "commands=%d rejected=%d unknown_accounts=%d failures=%d elapsed_ms=%d throughput=%.0f/s%n",
+                commands, rejected, unknownAccounts, failures, elapsed.toMillis(), throughput()));
+        writeHistogram(out, "latency", latency);
+        writeHistogram(out, "service_time", serviceTime);
+    }
+
+    private static void writeHistogram(Appendable out, String name, HistogramSnapshot histogram) throws IOException {
+        out.append(name).append("_us");
+        for (var percentile : PERCENTILES) {
+            out.append(String.format(Locale.ROOT, " p%s=%.1f", percentile == (long) percentile ? String.valueOf((long) percentile)
+                    : String.valueOf(percentile), histogram.valueAtPercentile(percentile) / 1_000.0));
+        }
+        out.append(String.format(Locale.ROOT, " max=%.1f mean=%.1f%n", histogram.max() / 1_000.0, histogram.mean() / 1_000.0));
+    }
+}
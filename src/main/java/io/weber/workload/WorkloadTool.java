@@ -0,0 +1,89 @@
+package io.weber.workload;
+
+import io.weber.repository.InMemoryAccountRepository;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.service.BankService;
+import io.weber.service.LockFreeAccountService;
+import io.weber.service.NoOverdraftAccountService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates or replays a workload and drives an in memory bank service with it, statements are printed nowhere.
+ * The opening commands run first as fast as possible and only the following commands are measured.
+ * Arguments are {@code key=value} pairs: seed, accounts, zipf, deposit, withdraw, statement, overdraft, max_amount,
+ * opening_balance and commands shape a generated workload, record saves it as a trace, replay loads a trace instead,
+ * and service (no-overdraft or lock-free), threads and rate set up the run.
+ */
+public final class WorkloadTool {
+
+    private WorkloadTool() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        run(parse(args), System.out);
+    }
+
+    static WorkloadReport run(Map<String, String> options, PrintStream out) throws IOException, InterruptedException {
+        WorkloadTrace trace;
+        if (options.containsKey("replay")) {
+            trace = WorkloadTrace.read(Path.of(options.get("replay")));
+        } else {
+            var defaults = WorkloadConfig.defaults(0);
+            var generator = new WorkloadGenerator(new WorkloadConfig(
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    Integer.parseInt(options.getOrDefault("accounts", String.valueOf(defaults.accounts()))),
+                    Double.parseDouble(options.getOrDefault("zipf", String.valueOf(defaults.zipfExponent()))),
+                    Double.parseDouble(options.getOrDefault("deposit", String.valueOf(defaults.depositRatio()))),
+                    Double.parseDouble(options.getOrDefault("withdraw", String.valueOf(defaults.withdrawRatio()))),
+                    Double.parseDouble(options.getOrDefault("statement", String.valueOf(defaults.statementRatio()))),
+                    Double.parseDouble(options.getOrDefault("overdraft", String.valueOf(defaults.overdraftRatio()))),
+                    Long.parseLong(options.getOrDefault("max_amount", String.valueOf(defaults.maxAmountCents()))),
+                    Long.parseLong(options.getOrDefault("opening_balance", String.valueOf(defaults.openingBalanceCents())))));
+            trace = new WorkloadTrace(generator.openingDeposits(),
+                    generator.generate(Integer.parseInt(options.getOrDefault("commands", "1000000"))));
+            if (options.containsKey("record")) {
+                trace.write(Path.of(options.get("record")));
+            }
+        }
+        var accounts = new HashSet<UUID>();
+        trace.opening().forEach(command -> accounts.add(command.accountId()));
+        trace.commands().forEach(command -> accounts.add(command.accountId()));
+        var service = service(options.getOrDefault("service", "no-overdraft"), new InMemoryAccountRepository(accounts));
+        var threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+        var threadFactory = Executors.defaultThreadFactory();
+        new OpenLoopDriver(service, threads, 0, threadFactory).run(trace.opening());
+        var report = new OpenLoopDriver(service, threads, Double.parseDouble(options.getOrDefault("rate", "0")),
+                threadFactory).run(trace.commands());
+        report.write(out);
+        return report;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static BankService service(String name, InMemoryAccountRepository accountRepository) {
+        return switch (name) {
+            case "no-overdraft" -> new NoOverdraftAccountService(accountRepository, new InMemoryTransactionRepository(),
+                    list -> { });
+            case "lock-free" -> new LockFreeAccountService(accountRepository, list -> { });
+            default -> throw new IllegalArgumentException("Unknown service " + name);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package io.weber.workload;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recorded workload: the opening commands that set accounts up, then the measured commands. The file is a magic
+ * number, both command counts and 25 bytes per command (operation ordinal, account id and amount in cents), a
+ * replay issues the exact same commands whatever generated them.
+ */
+public record WorkloadTrace(List<WorkloadCommand> opening, List<WorkloadCommand> commands) {
+    private static final long MAGIC = 0x5745424552545243L;
+    private static final WorkloadOperation[] OPERATIONS = WorkloadOperation.values();
+
+    public void write(Path path) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeLong(MAGIC);
+            out.writeInt(opening.size());
+            out.writeInt(commands.size());
+            for (var command : opening) {
+                write(out, command);
+            }
+            for (var command : commands) {
+                write(out, command);
+            }
+        }
+    }
+
+    public static WorkloadTrace read(Path path) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not a workload trace: " + path);
+            }
+            var openingCount = in.readInt();
+            var commandCount = in.readInt();
+            return new WorkloadTrace(read(in, openingCount, path), read(in, commandCount, path));
+        }
+    }
+
+    private static void write(DataOutputStream out, WorkloadCommand command) throws IOException {
+        out.writeByte(command.operation().ordinal());
+        out.writeLong(command.accountId().getMostSignificantBits());
+        out.writeLong(command.accountId().getLeastSignificantBits());
+        out.writeLong(command.amountCents());
+    }
+
+    private static List<WorkloadCommand> read(DataInputStream in, int count, Path path) throws IOException {
+        var commands = new ArrayList<WorkloadCommand>(count);
+        for (int i = 0; i < count; i++) {
+            var operation = in.readUnsignedByte();
+            if (operation >= OPERATIONS.length) {
+                throw new IOException("Unknown operation " + operation + " in trace " + path);
+            }
+            commands.add(new WorkloadCommand(OPERATIONS[operation], new UUID(in.readLong(), in.readLong()), in.readLong()));
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,51 @@
+package io.weber.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws account indexes with a probability proportional to 1 / rank^exponent. The cumulative distribution is
+ * computed once and sampled by binary search, and ranks are shuffled with the seed so the hot accounts are spread
+ * over the account list instead of being its first entries.
+ */
+final class ZipfianDistribution {
+    private final double[] cumulative;
+    private final int[] accountOfRank;
+
+    ZipfianDistribution(int accounts, double exponent, long seed) {
+        this.cumulative = new double[accounts];
+        var total = 0.0;
+        for (int rank = 0; rank < accounts; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < accounts; rank++) {
+            cumulative[rank] /= total;
+        }
+        this.accountOfRank = new int[accounts];
+        var random = new SplittableRandom(seed);
+        for (int i = 0; i < accounts; i++) {
+            var j = random.nextInt(i + 1);
+            accountOfRank[i] = accountOfRank[j];
+            accountOfRank[j] = i;
+        }
+    }
+
+    int sample(SplittableRandom random) {
+        var value = random.nextDouble();
+        var low = 0;
+        var high = cumulative.length - 1;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (cumulative[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return accountOfRank[low];
+    }
+
+    int accountOfRank(int rank) {
+        return accountOfRank[rank];
+    }
+}
@@ -0,0 +1,55 @@
+package io.weber.formatter;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Appendable formatter test")
+public class AppendableAccountStatementFormatterTest {
+    private final AppendableAccountStatementFormatter formatter = new AppendableAccountStatementFormatter();
+
+    @Test
+    @DisplayName("should write the same lines as the list formatter")
+    void writeSameLinesAsListFormatter() throws IOException {
+        var accountId = UUID.fromString("a7dcc471-df3b-4fca-bd2f-8f2e17e78e41");
+        var out = new StringBuilder();
+
+        formatter.format(generatedList(accountId).iterator(), out);
+
+        var expected = new StringBuilder();
+        new ListAccountStatementFormatter().format(generatedList(accountId))
+                .forEach(line -> expected.append(line).append(System.lineSeparator()));
+        Assertions.assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    @DisplayName("should write nothing for an empty history")
+    void writeNothingForEmptyHistory() throws IOException {
+        var out = new StringBuilder();
+
+        formatter.format(Collections.emptyIterator(), out);
+
+        Assertions.assertEquals("", out.toString());
+    }
+
+    private List<Transaction> generatedList(UUID id1) {
+        return List.of(new Transaction(id1, LocalDate.of(2022, 1, 20), new BigDecimal(100)
+                        .setScale(2, RoundingMode.HALF_EVEN), TransactionType.DEPOSIT, new BigDecimal(100).setScale(2, RoundingMode.HALF_EVEN)),
+                new Transaction(id1, LocalDate.of(2022, 2, 16), BigDecimal.valueOf(-5.2)
+                        .setScale(2, RoundingMode.HALF_EVEN), TransactionType.WITHDRAW, new BigDecimal("94.8").setScale(2, RoundingMode.HALF_EVEN)),
+                new Transaction(id1, LocalDate.of(2022, 3, 1), new BigDecimal("0.05"),
+                        TransactionType.DEPOSIT, new BigDecimal("94.85")),
+                new Transaction(id1, LocalDate.of(2022, 4, 30), BigDecimal.valueOf(-0.9)
+                        .setScale(2, RoundingMode.HALF_EVEN), TransactionType.WITHDRAW, new BigDecimal(63)));
+    }
+}
@@ -0,0 +1,102 @@
+package io.weber.metrics;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.service.BankCommand;
+import io.weber.service.BankService;
+import io.weber.service.NoOverdraftAccountService;
+import io.weber.service.TransactionResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Instrumented bank service test")
+public class InstrumentedBankServiceTest {
+    private final BankMetrics metrics = new BankMetrics();
+
+    @Mock
+    private BankService delegate;
+
+    @Nested
+    @DisplayName("when a call fails")
+    class Failures {
+
+        @Test
+        @DisplayName("should count the outcome and rethrow the exception")
+        void countAndRethrow() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new InstrumentedBankService(delegate, metrics);
+            when(delegate.withdraw(accountId, BigDecimal.TEN)).thenThrow(new InvalidTransactionException("Balance can't be negative"));
+            when(delegate.withdraw(accountId, BigDecimal.ZERO)).thenThrow(new InvalidTransactionException("Amount can't be negative or zero"));
+            doThrow(new NotFoundAccountException("Account id not found")).when(delegate).printAccountStatement(accountId);
+
+            assertThrows(InvalidTransactionException.class, () -> service.withdraw(accountId, BigDecimal.TEN));
+            assertThrows(InvalidTransactionException.class, () -> service.withdraw(accountId, BigDecimal.ZERO));
+            assertThrows(NotFoundAccountException.class, () -> service.printAccountStatement(accountId));
+
+            var snapshot = metrics.snapshot();
+            assertEquals(1, snapshot.outcome(Operation.WITHDRAW, Outcome.OVERDRAFT));
+            assertEquals(1, snapshot.outcome(Operation.WITHDRAW, Outcome.INVALID_AMOUNT));
+            assertEquals(1, snapshot.outcome(Operation.PRINT_STATEMENT, Outcome.UNKNOWN_ACCOUNT));
+            assertEquals(2, snapshot.operations().get(Operation.WITHDRAW).count());
+        }
+    }
+
+    @Nested
+    @DisplayName("when wrapping a real service")
+    class RealService {
+
+        @Test
+        @DisplayName("should time the service and its repositories")
+        void timeServiceAndRepositories() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new InstrumentedBankService(new NoOverdraftAccountService(
+                    new InstrumentedAccountRepository(id -> id.equals(accountId), metrics),
+                    new InstrumentedTransactionRepository(new ColumnarTransactionRepository(), metrics),
+                    list -> { }), metrics);
+
+            service.deposit(accountId, BigDecimal.TEN);
+            service.withdraw(accountId, BigDecimal.ONE);
+            var results = service.execute(List.of(BankCommand.withdraw(accountId, new BigDecimal(100)),
+                    BankCommand.deposit(UUID.randomUUID(), BigDecimal.ONE)));
+
+            assertEquals(List.of(TransactionResult.OVERDRAFT, TransactionResult.UNKNOWN_ACCOUNT), results);
+            var snapshot = metrics.snapshot();
+            assertEquals(1, snapshot.outcome(Operation.DEPOSIT, Outcome.SUCCESS));
+            assertEquals(1, snapshot.outcome(Operation.WITHDRAW, Outcome.SUCCESS));
+            assertEquals(1, snapshot.outcome(Operation.EXECUTE, Outcome.OVERDRAFT));
+            assertEquals(1, snapshot.outcome(Operation.EXECUTE, Outcome.UNKNOWN_ACCOUNT));
+            assertEquals(4, snapshot.repositoryCalls().get(RepositoryCall.IF_ACCOUNT_EXIST).count());
+            assertEquals(2, snapshot.repositoryCalls().get(RepositoryCall.APPEND_TRANSACTION).count());
+        }
+
+        @Test
+        @DisplayName("should export the snapshot in the Prometheus text format")
+        void exportPrometheus() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new InstrumentedBankService(
+                    new NoOverdraftAccountService(id -> true, new ColumnarTransactionRepository(), list -> { }), metrics);
+            service.deposit(accountId, BigDecimal.TEN);
+
+            var out = new StringBuilder();
+            metrics.snapshot().writePrometheus(out);
+
+            var text = out.toString();
+            assertTrue(text.contains("bank_operation_outcomes_total{operation=\"deposit\",outcome=\"success\"} 1\n"));
+            assertTrue(text.contains("bank_operation_seconds_count{operation=\"deposit\"} 1\n"));
+            assertTrue(text.contains("bank_operation_seconds{operation=\"withdraw\",quantile=\"0.99\"} 0.0\n"));
+        }
+    }
+}
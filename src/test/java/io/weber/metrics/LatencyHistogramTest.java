@@ -0,0 +1,60 @@
+package io.weber.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Latency histogram test")
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("should map every value to a bucket whose bounds contain it")
+    void bucketBoundsContainValue() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            var index = LatencyHistogram.index(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKETS);
+            assertTrue(value <= LatencyHistogram.upperBound(index));
+            assertTrue(index == 0 || value > LatencyHistogram.upperBound(index - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("should report percentiles within the bucket precision")
+    void reportPercentiles() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        var snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.count());
+        assertEquals(10_000_000L, snapshot.max());
+        assertEquals(5_000_500.0, snapshot.mean());
+        assertEquals(5_000_000, snapshot.valueAtPercentile(50), 5_000_000 * 0.04);
+        assertEquals(9_900_000, snapshot.valueAtPercentile(99), 9_900_000 * 0.04);
+        assertEquals(10_000_000L, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("should not allocate when recording")
+    void recordWithoutAllocation() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var histogram = new LatencyHistogram();
+        for (int i = 0; i < 100_000; i++) {
+            histogram.record(i);
+        }
+        var thread = Thread.currentThread().getId();
+
+        var before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            histogram.record(i * 7L);
+        }
+        var allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < 1_024, "allocated " + allocated + " bytes");
+    }
+}
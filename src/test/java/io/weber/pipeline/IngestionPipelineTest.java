@@ -0,0 +1,215 @@
+package io.weber.pipeline;
+
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionResult;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Ingestion pipeline test")
+public class IngestionPipelineTest {
+
+    @Nested
+    @DisplayName("when commands are published")
+    class Publish {
+
+        @Test
+        @DisplayName("should apply the no overdraft rule and persist accepted transactions in order")
+        void applyAndPersist() throws Exception {
+            var accountId = UUID.randomUUID();
+            var unknown = UUID.randomUUID();
+            var repository = new InMemoryTransactionRepository();
+            var results = new ArrayList<TransactionResult>();
+            var pipeline = new IngestionPipeline(id -> !id.equals(unknown), repository, new PipelineConfig(8, 2),
+                    (sequence, id, result) -> {
+                        assertEquals(results.size(), sequence);
+                        results.add(result);
+                    }, Thread::new);
+
+            assertEquals(0, pipeline.publish(accountId, TransactionType.DEPOSIT, new BigDecimal("10.5")));
+            pipeline.publish(accountId, TransactionType.WITHDRAW, 2_000);
+            pipeline.publish(accountId, TransactionType.WITHDRAW, 50);
+            pipeline.publish(accountId, TransactionType.DEPOSIT, 0);
+            pipeline.publish(unknown, TransactionType.DEPOSIT, 100);
+            pipeline.close();
+
+            var history = repository.getAllTransactions(accountId);
+            assertEquals(2, history.size());
+            assertEquals(new BigDecimal("10.00"), history.get(1).accountBalance());
+            assertEquals(List.of(new TransactionResult.Accepted(history.get(0)), TransactionResult.OVERDRAFT,
+                    new TransactionResult.Accepted(history.get(1)), TransactionResult.INVALID_AMOUNT,
+                    TransactionResult.UNKNOWN_ACCOUNT), results);
+            assertEquals(new PipelineStats(5, 5, 5, 0, 0, 0, pipeline.stats().batches()), pipeline.stats());
+            assertThrows(IllegalStateException.class, () -> pipeline.publish(accountId, TransactionType.DEPOSIT, 1));
+        }
+
+        @Test
+        @DisplayName("should refuse publications when the ring is full")
+        void applyBackpressure() throws Exception {
+            var accountId = UUID.randomUUID();
+            var release = new CountDownLatch(1);
+            var repository = new InMemoryTransactionRepository() {
+                @Override
+                public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.appendTransactions(id, factory);
+                }
+            };
+            var pipeline = new IngestionPipeline(id -> true, repository, new PipelineConfig(4, 4), PipelineListener.NONE,
+                    Thread::new);
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, pipeline.tryPublish(accountId, TransactionType.DEPOSIT, 100));
+            }
+            assertEquals(-1, pipeline.tryPublish(accountId, TransactionType.DEPOSIT, 100));
+            var stats = pipeline.stats();
+            assertEquals(4, stats.queueDepth());
+            assertEquals(1, stats.rejectedPublications());
+
+            release.countDown();
+            pipeline.publish(accountId, TransactionType.DEPOSIT, 100);
+            pipeline.close();
+
+            assertEquals(new BigDecimal("5.00"), repository.getLastTransaction(accountId).orElseThrow().accountBalance());
+            assertEquals(0, pipeline.stats().queueDepth());
+        }
+    }
+
+    @Nested
+    @DisplayName("when a command or a stage fails")
+    class Failures {
+
+        @Test
+        @DisplayName("should reject a command that can't be applied and go on with the next ones")
+        void rejectFailingCommand() {
+            var accountId = UUID.randomUUID();
+            var broken = UUID.randomUUID();
+            var lookupFailure = new IllegalStateException("Account store unavailable");
+            var repository = new InMemoryTransactionRepository();
+            var results = new ArrayList<TransactionResult>();
+            var pipeline = new IngestionPipeline(id -> {
+                if (id.equals(broken)) {
+                    throw lookupFailure;
+                }
+                return true;
+            }, repository, new PipelineConfig(8, 8), (sequence, id, result) -> results.add(result), Thread::new);
+
+            pipeline.publish(accountId, TransactionType.DEPOSIT, 100);
+            pipeline.publish(accountId, TransactionType.DEPOSIT, Long.MAX_VALUE);
+            pipeline.publish(broken, TransactionType.DEPOSIT, 100);
+            pipeline.publish(accountId, TransactionType.DEPOSIT, 100);
+            pipeline.close();
+
+            var history = repository.getAllTransactions(accountId);
+            assertEquals(List.of(new TransactionResult.Accepted(history.get(0)), TransactionResult.INVALID_AMOUNT,
+                    new TransactionResult.Failed(lookupFailure), new TransactionResult.Accepted(history.get(1))), results);
+            assertEquals(new BigDecimal("2.00"), history.get(1).accountBalance());
+        }
+
+        @Test
+        @DisplayName("should report the commands the repository failed to persist and stop")
+        void stopWhenPersisterFails() throws Exception {
+            var accountId = UUID.randomUUID();
+            var persistFailure = new IllegalStateException("Disk full");
+            var repository = new InMemoryTransactionRepository() {
+                @Override
+                public List<Transaction> appendTransactions(UUID id, Function<Optional<Transaction>, List<Transaction>> factory) {
+                    throw persistFailure;
+                }
+            };
+            var results = new ArrayList<TransactionResult>();
+            var pipeline = new IngestionPipeline(id -> true, repository, new PipelineConfig(4, 4),
+                    (sequence, id, result) -> results.add(result), Thread::new);
+            var producer = Executors.newSingleThreadExecutor();
+            try {
+                var publishing = producer.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        pipeline.publish(accountId, TransactionType.DEPOSIT, 100);
+                    }
+                });
+
+                var failure = assertThrows(ExecutionException.class, () -> publishing.get(1, TimeUnit.MINUTES));
+                assertSame(persistFailure, failure.getCause().getCause());
+            } finally {
+                producer.shutdownNow();
+            }
+
+            var closing = assertThrows(IllegalStateException.class, pipeline::close);
+            assertSame(persistFailure, closing.getCause());
+            assertThrows(IllegalStateException.class, () -> pipeline.publish(accountId, TransactionType.DEPOSIT, 100));
+            assertFalse(results.isEmpty());
+            results.forEach(result -> assertEquals(new TransactionResult.Failed(persistFailure), result));
+        }
+    }
+
+    @Nested
+    @DisplayName("when many producers publish")
+    class Throughput {
+        private static final int PRODUCERS = 4;
+        private static final int COMMANDS = 500_000;
+        private static final int ACCOUNTS = 64;
+
+        @Test
+        @DisplayName("should persist every command with consistent balances")
+        void persistEveryCommand() throws Exception {
+            var accounts = new UUID[ACCOUNTS];
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accounts[i] = UUID.randomUUID();
+            }
+            var repository = new ColumnarTransactionRepository();
+            var accepted = new AtomicLong();
+            var pipeline = new IngestionPipeline(id -> true, repository, PipelineConfig.defaults(),
+                    (sequence, id, result) -> accepted.incrementAndGet(), Thread::new);
+            var producers = Executors.newFixedThreadPool(PRODUCERS);
+            try {
+                var futures = new ArrayList<Future<?>>();
+                for (int p = 0; p < PRODUCERS; p++) {
+                    var producer = p;
+                    futures.add(producers.submit(() -> {
+                        for (int i = 0; i < COMMANDS; i++) {
+                            pipeline.publish(accounts[(producer + i) % ACCOUNTS], TransactionType.DEPOSIT, 1);
+                        }
+                    }));
+                }
+                for (var future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+                pipeline.close();
+            } finally {
+                producers.shutdownNow();
+            }
+
+            var total = PRODUCERS * COMMANDS;
+            assertEquals(total, accepted.get());
+            var persisted = 0L;
+            for (var accountId : accounts) {
+                var history = repository.getAllTransactions(accountId);
+                persisted += history.size();
+                assertEquals(BigDecimal.valueOf(history.size(), 2), history.get(history.size() - 1).accountBalance());
+            }
+            assertEquals(total, persisted);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.weber.printer;
+
+import io.weber.formatter.ListAccountStatementFormatter;
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bulk statement job test")
+public class BulkStatementJobTest {
+    private static final int ACCOUNTS = 500;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ColumnarTransactionRepository repository = new ColumnarTransactionRepository();
+    private final ListAccountStatementFormatter formatter = new ListAccountStatementFormatter();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should write the formatted statement of every account")
+    void writeEveryStatement() throws IOException {
+        var accounts = accounts();
+        var reports = new CopyOnWriteArrayList<BulkStatementProgress>();
+        var job = new BulkStatementJob(repository, formatter, directory, pool, false);
+
+        var progress = job.run(accounts, 100, reports::add);
+
+        assertEquals(ACCOUNTS, progress.written());
+        assertEquals(ACCOUNTS, progress.done());
+        assertEquals(ACCOUNTS / 100, reports.size());
+        for (var accountId : accounts) {
+            var expected = String.join("\n", formatter.format(repository.getAllTransactions(accountId))) + "\n";
+            assertEquals(expected, Files.readString(BulkStatementJob.statementFile(directory, accountId)));
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(ACCOUNTS, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("should resume by skipping the statements already written")
+    void resumeAfterCrash() throws IOException {
+        var accounts = accounts();
+        var job = new BulkStatementJob(repository, formatter, directory, pool, true);
+        job.run(accounts.subList(0, 200), 1_000, progress -> { });
+        Files.writeString(directory.resolve(accounts.get(200) + ".statement.tmp"), "partial");
+
+        var progress = job.run(accounts, 1_000, report -> { });
+
+        assertEquals(200, progress.skipped());
+        assertEquals(ACCOUNTS - 200, progress.written());
+        assertEquals(0, progress.failed());
+        var expected = String.join("\n", formatter.format(repository.getAllTransactions(accounts.get(200)))) + "\n";
+        assertEquals(expected, Files.readString(BulkStatementJob.statementFile(directory, accounts.get(200))));
+    }
+
+    @Test
+    @DisplayName("should report the exception of every statement that failed")
+    void reportFailures() throws IOException {
+        var accounts = accounts();
+        var broken = accounts.get(42);
+        var formatFailure = new IllegalStateException("Formatter bug");
+        var job = new BulkStatementJob(repository, transactions -> {
+            if (!transactions.isEmpty() && transactions.get(0).accountId().equals(broken)) {
+                throw formatFailure;
+            }
+            return formatter.format(transactions);
+        }, directory, pool, false);
+
+        var progress = job.run(accounts, 1_000, report -> { });
+
+        assertEquals(1, progress.failed());
+        assertEquals(Map.of(broken, formatFailure), progress.failures());
+        assertEquals(ACCOUNTS - 1, progress.written());
+        assertFalse(Files.exists(BulkStatementJob.statementFile(directory, broken)));
+    }
+
+    private List<UUID> accounts() {
+        var accounts = new ArrayList<UUID>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            var accountId = UUID.randomUUID();
+            var balance = 0L;
+            for (int j = 0; j <= i % 7; j++) {
+                balance += 1_000 + j;
+                repository.addTransaction(new Transaction(accountId, LocalDate.of(2022, 1, 1).plusDays(j),
+                        BigDecimal.valueOf(1_000 + j, 2), TransactionType.DEPOSIT, BigDecimal.valueOf(balance, 2)));
+            }
+            accounts.add(accountId);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,123 @@
+package io.weber.printer;
+
+import io.weber.formatter.AppendableAccountStatementFormatter;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Caching printer test")
+public class CachingAccountStatementPrinterTest {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    private final ChannelAccountStatementPrinter reference = new ChannelAccountStatementPrinter(
+            new AppendableAccountStatementFormatter(), Channels.newChannel(expected));
+
+    @Test
+    @DisplayName("should only format the transactions appended since the last statement")
+    void formatAppendedTransactions() {
+        var printer = new CachingAccountStatementPrinter(new AppendableAccountStatementFormatter(),
+                Channels.newChannel(out), 1024 * 1024);
+        var history = generatedList(UUID.randomUUID(), 100);
+
+        for (var size : List.of(10, 10, 60, 100)) {
+            printer.print(history.subList(0, size));
+            reference.print(history.subList(0, size));
+        }
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        var stats = printer.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(100, stats.formattedTransactions());
+    }
+
+    @Test
+    @DisplayName("should render in full a statement that does not extend the cached one")
+    void renderOtherStatements() {
+        var printer = new CachingAccountStatementPrinter(new AppendableAccountStatementFormatter(),
+                Channels.newChannel(out), 1024 * 1024);
+        var history = generatedList(UUID.randomUUID(), 50);
+
+        for (var statement : List.of(history.subList(0, 40), history.subList(10, 20), history.subList(0, 50))) {
+            printer.print(statement);
+            reference.print(statement);
+        }
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        assertEquals(1, printer.stats().hits());
+        assertEquals(50 + 10, printer.stats().formattedTransactions());
+    }
+
+    @Test
+    @DisplayName("should render in full a page whose ends match the cached statement")
+    void renderPageMatchingEnds() {
+        var printer = new CachingAccountStatementPrinter(new AppendableAccountStatementFormatter(),
+                Channels.newChannel(out), 1024 * 1024);
+        var accountId = UUID.randomUUID();
+        var history = List.of(sameDay(accountId, TransactionType.DEPOSIT, 10, 10),
+                sameDay(accountId, TransactionType.WITHDRAW, 10, 0), sameDay(accountId, TransactionType.DEPOSIT, 10, 10),
+                sameDay(accountId, TransactionType.DEPOSIT, 5, 15), sameDay(accountId, TransactionType.WITHDRAW, 5, 10),
+                sameDay(accountId, TransactionType.DEPOSIT, 5, 15));
+
+        for (var statement : List.of(history.subList(0, 4), history.subList(2, 6))) {
+            printer.print(statement);
+            reference.print(statement);
+        }
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, printer.stats().hits());
+    }
+
+    @Test
+    @DisplayName("should evict the least recently printed statements beyond the cache size")
+    void evictLeastRecentlyPrinted() {
+        var printer = new CachingAccountStatementPrinter(new AppendableAccountStatementFormatter(),
+                Channels.newChannel(out), 4096);
+        var first = generatedList(UUID.randomUUID(), 20);
+        var second = generatedList(UUID.randomUUID(), 20);
+        var third = generatedList(UUID.randomUUID(), 20);
+
+        printer.print(first);
+        printer.print(second);
+        printer.print(first);
+        printer.print(third);
+        printer.print(first);
+        printer.print(second);
+
+        var stats = printer.stats();
+        assertEquals(2, stats.cachedStatements());
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertTrue(stats.cachedBytes() <= 4096);
+    }
+
+    private static Transaction sameDay(UUID accountId, TransactionType type, long amount, long balance) {
+        return new Transaction(accountId, LocalDate.of(2022, 1, 20), BigDecimal.valueOf(amount), type,
+                BigDecimal.valueOf(balance));
+    }
+
+    private static List<Transaction> generatedList(UUID accountId, int size) {
+        var list = new ArrayList<Transaction>();
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var type = i % 3 == 2 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+            var amount = 500L + i;
+            balance += type == TransactionType.DEPOSIT ? amount : -amount;
+            list.add(new Transaction(accountId, LocalDate.of(2022, 1, 20).plusDays(i), BigDecimal.valueOf(amount, 2),
+                    type, BigDecimal.valueOf(balance, 2)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,45 @@
+package io.weber.printer;
+
+import io.weber.formatter.AppendableAccountStatementFormatter;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Channel printer test")
+public class ChannelAccountStatementPrinterTest {
+
+    @Test
+    @DisplayName("should print account statement through a buffer smaller than a line")
+    void printAccountStatement() {
+        var accountId = UUID.fromString("a7dcc471-df3b-4fca-bd2f-8f2e17e78e41");
+        var out = new ByteArrayOutputStream();
+        var printer = new ChannelAccountStatementPrinter(new AppendableAccountStatementFormatter(), Channels.newChannel(out), 16);
+
+        printer.print(generatedList(accountId));
+        printer.print(generatedList(accountId));
+
+        var separator = System.lineSeparator();
+        var statement = accountId + separator +
+                "Transaction{date=2022-01-20, amount=100.00, type=DEPOSIT, accountBalance=100.00}" + separator +
+                "Transaction{date=2022-02-16, amount=5.20, type=WITHDRAW, accountBalance=94.80}" + separator;
+        Assertions.assertEquals(statement + statement, out.toString(StandardCharsets.UTF_8));
+    }
+
+    private List<Transaction> generatedList(UUID id1) {
+        return List.of(new Transaction(id1, LocalDate.of(2022, 1, 20), new BigDecimal(100)
+                        .setScale(2, RoundingMode.HALF_EVEN), TransactionType.DEPOSIT, new BigDecimal(100).setScale(2, RoundingMode.HALF_EVEN)),
+                new Transaction(id1, LocalDate.of(2022, 2, 16), BigDecimal.valueOf(5.2)
+                        .setScale(2, RoundingMode.HALF_EVEN), TransactionType.WITHDRAW, new BigDecimal("94.8").setScale(2, RoundingMode.HALF_EVEN)));
+    }
+}
@@ -0,0 +1,118 @@
+package io.weber.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Caching account repository test")
+public class CachingAccountRepositoryTest {
+
+    @Mock
+    private AccountRepository delegate;
+
+    @Nested
+    @DisplayName("when probing a known account")
+    class KnownAccount {
+
+        @Test
+        @DisplayName("should reach the delegate only on the first probe")
+        void cacheExistingAccount() {
+            var accountId = UUID.randomUUID();
+            var repository = new CachingAccountRepository(delegate, List.of(accountId), 100, 0.01, 10);
+            when(delegate.ifAccountExist(accountId)).thenReturn(true);
+
+            assertTrue(repository.ifAccountExist(accountId));
+            assertTrue(repository.ifAccountExist(accountId));
+            assertTrue(repository.ifAccountExist(accountId));
+
+            verify(delegate, times(1)).ifAccountExist(accountId);
+            assertEquals(new CachingAccountRepository.CacheStats(2, 1, 0, 0, 1), repository.stats());
+        }
+
+        @Test
+        @DisplayName("should evict the least recently used account")
+        void evictLeastRecentlyUsed() {
+            var first = UUID.randomUUID();
+            var second = UUID.randomUUID();
+            var third = UUID.randomUUID();
+            var repository = new CachingAccountRepository(delegate, List.of(first, second, third), 100, 0.01, 2);
+            when(delegate.ifAccountExist(any())).thenReturn(true);
+
+            repository.ifAccountExist(first);
+            repository.ifAccountExist(second);
+            repository.ifAccountExist(first);
+            repository.ifAccountExist(third);
+            repository.ifAccountExist(first);
+            repository.ifAccountExist(second);
+
+            verify(delegate, times(1)).ifAccountExist(first);
+            verify(delegate, times(2)).ifAccountExist(second);
+            assertEquals(2, repository.stats().size());
+        }
+
+        @Test
+        @DisplayName("should ask the delegate again once the account is closed")
+        void invalidateClosedAccount() {
+            var accountId = UUID.randomUUID();
+            var repository = new CachingAccountRepository(delegate, List.of(accountId), 100, 0.01, 10);
+            when(delegate.ifAccountExist(accountId)).thenReturn(true, false);
+
+            assertTrue(repository.ifAccountExist(accountId));
+            repository.accountClosed(accountId);
+
+            assertFalse(repository.ifAccountExist(accountId));
+            assertEquals(1, repository.stats().falsePositives());
+        }
+    }
+
+    @Nested
+    @DisplayName("when probing an unknown account")
+    class UnknownAccount {
+
+        @Test
+        @DisplayName("should reject most unknown accounts without reaching the delegate")
+        void rejectUnknownAccounts() {
+            var known = new ArrayList<UUID>();
+            for (int i = 0; i < 10_000; i++) {
+                known.add(UUID.randomUUID());
+            }
+            var repository = new CachingAccountRepository(delegate, known, known.size(), 0.01, 100);
+
+            for (int i = 0; i < 10_000; i++) {
+                assertFalse(repository.ifAccountExist(UUID.randomUUID()));
+            }
+
+            var stats = repository.stats();
+            assertEquals(10_000, stats.bloomRejections() + stats.falsePositives());
+            assertTrue(stats.falsePositives() < 300, "false positives " + stats.falsePositives());
+            verify(delegate, times((int) stats.falsePositives())).ifAccountExist(any());
+        }
+
+        @Test
+        @DisplayName("should let an account opened after construction through")
+        void acceptOpenedAccount() {
+            var accountId = UUID.randomUUID();
+            var repository = new CachingAccountRepository(delegate, List.of(), 100, 0.001, 10);
+
+            assertFalse(repository.ifAccountExist(accountId));
+            verifyNoInteractions(delegate);
+
+            repository.accountOpened(accountId);
+            when(delegate.ifAccountExist(accountId)).thenReturn(true);
+
+            assertTrue(repository.ifAccountExist(accountId));
+            assertEquals(1, repository.stats().bloomRejections());
+        }
+    }
+}
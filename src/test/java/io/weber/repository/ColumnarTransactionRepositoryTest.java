@@ -0,0 +1,168 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import io.weber.service.Transfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Columnar transaction repository test")
+public class ColumnarTransactionRepositoryTest {
+    private static final int HISTORY_SIZE = 300_000;
+
+    private final ColumnarTransactionRepository repository = new ColumnarTransactionRepository();
+
+    @Test
+    @DisplayName("should give back the stored transactions")
+    void giveBackStoredTransactions() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 20);
+        transactions.forEach(repository::addTransaction);
+
+        assertEquals(transactions, repository.getAllTransactions(accountId));
+        assertEquals(Optional.of(transactions.get(19)), repository.getLastTransaction(accountId));
+    }
+
+    @Test
+    @DisplayName("should keep a returned history stable while the account grows")
+    void keepReturnedHistoryStable() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 30);
+        transactions.subList(0, 5).forEach(repository::addTransaction);
+
+        var history = repository.getAllTransactions(accountId);
+        transactions.subList(5, 30).forEach(repository::addTransaction);
+
+        assertEquals(transactions.subList(0, 5), history);
+        assertEquals(30, repository.getAllTransactions(accountId).size());
+    }
+
+    @Test
+    @DisplayName("should return the transactions of a date range")
+    void returnDateRange() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 30);
+        transactions.forEach(repository::addTransaction);
+
+        assertEquals(transactions.subList(3, 11),
+                repository.getTransactions(accountId, LocalDate.of(2022, 1, 23), LocalDate.of(2022, 1, 30)));
+        assertEquals(List.of(), repository.getTransactions(accountId, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 2, 1)));
+        assertEquals(List.of(), repository.getTransactions(accountId, LocalDate.of(2022, 2, 1), LocalDate.of(2022, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("should return the transactions of a page")
+    void returnPage() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 30);
+        transactions.forEach(repository::addTransaction);
+
+        assertEquals(transactions.subList(10, 20), repository.getTransactions(accountId, 10, 10));
+        assertEquals(transactions.subList(25, 30), repository.getTransactions(accountId, 25, 10));
+        assertEquals(List.of(), repository.getTransactions(accountId, 40, 10));
+        assertThrows(IllegalArgumentException.class, () -> repository.getTransactions(accountId, -1, 10));
+    }
+
+    @Test
+    @DisplayName("should refuse amounts finer than a cent")
+    void refuseSubCentAmounts() {
+        var accountId = UUID.randomUUID();
+        var transaction = new Transaction(accountId, LocalDate.of(2022, 1, 20), new BigDecimal("1.001"),
+                TransactionType.DEPOSIT, new BigDecimal("1.001"));
+
+        assertThrows(ArithmeticException.class, () -> repository.addTransaction(transaction));
+    }
+
+    @Test
+    @DisplayName("should store nothing of a batch or a transfer holding an amount finer than a cent")
+    void refuseSubCentBatchAndTransfer() {
+        var from = UUID.randomUUID();
+        var to = UUID.randomUUID();
+        var date = LocalDate.of(2022, 1, 20);
+        var deposit = new Transaction(from, date, new BigDecimal("10.00"), TransactionType.DEPOSIT, new BigDecimal("10.00"));
+        var subCent = new Transaction(from, date, new BigDecimal("0.001"), TransactionType.DEPOSIT, new BigDecimal("10.001"));
+        repository.addTransaction(deposit);
+
+        assertThrows(ArithmeticException.class, () -> repository.appendTransactions(from,
+                lastTransaction -> List.of(deposit, subCent)));
+        assertThrows(ArithmeticException.class, () -> repository.appendTransfer(from, to, (lastFrom, lastTo) -> new Transfer(
+                new Transaction(from, date, new BigDecimal("1.00"), TransactionType.TRANSFER_OUT, new BigDecimal("9.00")),
+                new Transaction(to, date, new BigDecimal("1.00"), TransactionType.TRANSFER_IN, new BigDecimal("1.001")))));
+
+        assertEquals(List.of(deposit), repository.getAllTransactions(from));
+        assertEquals(List.of(), repository.getAllTransactions(to));
+    }
+
+    @Test
+    @DisplayName("should use far less heap than a list of transactions")
+    void useLessHeapThanAList() {
+        var accountId = UUID.randomUUID();
+
+        var naive = new ArrayList<Transaction>();
+        var naiveBytes = retainedBytes(() -> {
+            generatedStream(accountId, naive::add);
+            return naive;
+        });
+        var columnar = new ColumnarTransactionRepository();
+        var columnarBytes = retainedBytes(() -> {
+            generatedStream(accountId, columnar::addTransaction);
+            return columnar;
+        });
+
+        assertEquals(HISTORY_SIZE, naive.size());
+        assertEquals(HISTORY_SIZE, columnar.getAllTransactions(accountId).size());
+        assertTrue(columnarBytes * 3 < naiveBytes,
+                "columnar store retained " + columnarBytes + " bytes, list retained " + naiveBytes + " bytes");
+        assertTrue(columnar.columnBytes() * 3 < naiveBytes);
+    }
+
+    private static long retainedBytes(Supplier<Object> fill) {
+        var before = usedHeap();
+        var retained = fill.get();
+        var after = usedHeap();
+        assertNotNull(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void generatedStream(UUID accountId, Consumer<Transaction> sink) {
+        var balance = 0L;
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            var amount = 1_000L + i % 97;
+            balance += amount;
+            sink.accept(new Transaction(accountId, LocalDate.of(2022, 1, 1).plusDays(i / 1_000),
+                    BigDecimal.valueOf(amount, 2), TransactionType.DEPOSIT, BigDecimal.valueOf(balance, 2)));
+        }
+    }
+
+    private static List<Transaction> generatedList(UUID accountId, int size) {
+        var list = new ArrayList<Transaction>();
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var type = i % 3 == 2 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+            var amount = 500L + i;
+            balance += type == TransactionType.DEPOSIT ? amount : -amount;
+            list.add(new Transaction(accountId, LocalDate.of(2022, 1, 20).plusDays(i), BigDecimal.valueOf(amount, 2),
+                    type, BigDecimal.valueOf(balance, 2)));
+        }
+        return list;
+    }
+}
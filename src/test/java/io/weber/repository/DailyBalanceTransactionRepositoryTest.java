@@ -0,0 +1,171 @@
+package io.weber.repository;
+
+import io.weber.service.Money;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import io.weber.service.Transfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Daily balance transaction repository test")
+public class DailyBalanceTransactionRepositoryTest {
+    private static final LocalDate START = LocalDate.of(2022, 1, 1);
+
+    private final InMemoryTransactionRepository delegate = new InMemoryTransactionRepository();
+    private final DailyBalanceTransactionRepository repository = new DailyBalanceTransactionRepository(delegate, List.of());
+
+    @Nested
+    @DisplayName("when querying daily balances")
+    class Queries {
+
+        @Test
+        @DisplayName("should carry the closing balance over days without transactions")
+        void carryClosingBalance() {
+            var accountId = UUID.randomUUID();
+            repository.addTransaction(transaction(accountId, START, 1_000));
+            repository.addTransaction(transaction(accountId, START, 3_000));
+            repository.addTransaction(transaction(accountId, START.plusDays(3), 500));
+
+            assertEquals(Optional.empty(), repository.closingBalance(accountId, START.minusDays(1)));
+            assertEquals(Optional.of(new BigDecimal("30.00")), repository.closingBalance(accountId, START));
+            assertEquals(Optional.of(new BigDecimal("30.00")), repository.closingBalance(accountId, START.plusDays(2)));
+            assertEquals(Optional.of(new BigDecimal("5.00")), repository.closingBalance(accountId, START.plusDays(30)));
+        }
+
+        @Test
+        @DisplayName("should summarize a range clipped to the first transaction and extended past the last one")
+        void summarizeRange() {
+            var accountId = UUID.randomUUID();
+            repository.addTransaction(transaction(accountId, START, 1_000));
+            repository.addTransaction(transaction(accountId, START.plusDays(2), 4_000));
+
+            var summary = repository.balanceSummary(accountId, START.minusDays(10), START.plusDays(4)).orElseThrow();
+
+            assertEquals(new BalanceSummary(START, START.plusDays(4), new BigDecimal("10.00"), new BigDecimal("40.00"),
+                    new BigDecimal("28.00")), summary);
+            assertEquals(Optional.empty(), repository.balanceSummary(accountId, START.minusDays(10), START.minusDays(1)));
+        }
+
+        @Test
+        @DisplayName("should match a replay of the history on random ranges")
+        void matchReplay() {
+            var accountId = UUID.randomUUID();
+            var random = new Random(7);
+            var date = START;
+            for (int i = 0; i < 2_000; i++) {
+                date = date.plusDays(random.nextInt(4) == 0 ? random.nextInt(5) : 0);
+                repository.addTransaction(transaction(accountId, date, random.nextInt(1_000_000)));
+            }
+            var history = repository.getAllTransactions(accountId);
+
+            for (int i = 0; i < 200; i++) {
+                var from = START.plusDays(random.nextInt(1_200) - 100);
+                var to = from.plusDays(random.nextInt(400));
+                assertEquals(replayed(history, from, to), repository.balanceSummary(accountId, from, to));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("when appending")
+    class Appends {
+
+        @Test
+        @DisplayName("should record both legs of a transfer")
+        void recordTransfer() {
+            var from = UUID.randomUUID();
+            var to = UUID.randomUUID();
+            repository.addTransaction(transaction(from, START, 10_000));
+
+            repository.appendTransfer(from, to, (lastFrom, lastTo) -> new Transfer(
+                    new Transaction(from, START.plusDays(1), new BigDecimal("25.00"), TransactionType.TRANSFER_OUT, new BigDecimal("75.00")),
+                    new Transaction(to, START.plusDays(1), new BigDecimal("25.00"), TransactionType.TRANSFER_IN, new BigDecimal("25.00"))));
+
+            assertEquals(Optional.of(new BigDecimal("75.00")), repository.closingBalance(from, START.plusDays(1)));
+            assertEquals(Optional.of(new BigDecimal("25.00")), repository.closingBalance(to, START.plusDays(1)));
+            assertEquals(2, delegate.getAllTransactions(from).size());
+        }
+
+        @Test
+        @DisplayName("should reject a transaction dated before the last one without appending it")
+        void rejectOutOfOrder() {
+            var accountId = UUID.randomUUID();
+            repository.addTransaction(transaction(accountId, START.plusDays(1), 1_000));
+
+            var exception = assertThrows(IllegalArgumentException.class,
+                    () -> repository.addTransaction(transaction(accountId, START, 2_000)));
+
+            assertEquals("Transactions must be appended in date order", exception.getMessage());
+            assertEquals(1, delegate.getAllTransactions(accountId).size());
+        }
+
+        @Test
+        @DisplayName("should not record a transaction the delegate rejects")
+        void skipRejectedTransaction() {
+            var accountId = UUID.randomUUID();
+            var columnar = new DailyBalanceTransactionRepository(new ColumnarTransactionRepository(), List.of());
+            columnar.addTransaction(transaction(accountId, START, 1_000));
+
+            assertThrows(ArithmeticException.class, () -> columnar.addTransaction(new Transaction(accountId,
+                    START.plusDays(1), new BigDecimal("10.001"), TransactionType.DEPOSIT, new BigDecimal("20.001"))));
+
+            assertEquals(Optional.of(new BigDecimal("10.00")), columnar.closingBalance(accountId, START.plusDays(1)));
+            assertEquals(new BigDecimal("10.00"), columnar.balanceSummary(accountId, START, START.plusDays(1))
+                    .orElseThrow().maximum());
+        }
+
+        @Test
+        @DisplayName("should replay the history of existing accounts")
+        void replayExistingAccounts() {
+            var accountId = UUID.randomUUID();
+            delegate.addTransaction(transaction(accountId, START, 1_000));
+            delegate.addTransaction(transaction(accountId, START.plusDays(1), 2_000));
+
+            var rebuilt = new DailyBalanceTransactionRepository(delegate, List.of(accountId));
+
+            assertEquals(new BigDecimal("15.00"), rebuilt.balanceSummary(accountId, START, START.plusDays(1))
+                    .orElseThrow().average());
+        }
+    }
+
+    private static Optional<BalanceSummary> replayed(List<Transaction> history, LocalDate from, LocalDate to) {
+        var first = history.get(0).date();
+        if (to.isBefore(first)) {
+            return Optional.empty();
+        }
+        var start = from.isBefore(first) ? first : from;
+        var closings = new ArrayList<Long>();
+        var index = 0;
+        var closing = 0L;
+        for (var day = first; !day.isAfter(to); day = day.plusDays(1)) {
+            while (index < history.size() && !history.get(index).date().isAfter(day)) {
+                closing = Money.toCents(history.get(index++).accountBalance());
+            }
+            if (!day.isBefore(start)) {
+                closings.add(closing);
+            }
+        }
+        var sum = closings.stream().mapToLong(Long::longValue).sum();
+        return Optional.of(new BalanceSummary(start, to,
+                Money.toBigDecimal(closings.stream().mapToLong(Long::longValue).min().orElseThrow()),
+                Money.toBigDecimal(closings.stream().mapToLong(Long::longValue).max().orElseThrow()),
+                BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(closings.size()), 0, RoundingMode.HALF_EVEN)
+                        .movePointLeft(Money.SCALE)));
+    }
+
+    private static Transaction transaction(UUID accountId, LocalDate date, long balanceCents) {
+        return new Transaction(accountId, date, new BigDecimal("1.00"), TransactionType.DEPOSIT, Money.toBigDecimal(balanceCents));
+    }
+}
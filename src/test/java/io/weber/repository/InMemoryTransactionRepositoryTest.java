@@ -0,0 +1,204 @@
+package io.weber.repository;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.service.NoOverdraftAccountService;
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("In memory transaction repository test")
+public class InMemoryTransactionRepositoryTest {
+    private final InMemoryTransactionRepository repository = new InMemoryTransactionRepository(4);
+
+    @Nested
+    @DisplayName("when used from a single thread")
+    class SingleThread {
+
+        @Test
+        @DisplayName("should return the history in append order")
+        void returnHistoryInOrder() {
+            var accountId = UUID.randomUUID();
+            var first = transaction(accountId, 100, 100);
+            var second = transaction(accountId, 50, 150);
+            repository.addTransaction(first);
+            repository.addTransaction(second);
+
+            assertEquals(List.of(first, second), repository.getAllTransactions(accountId));
+            assertEquals(Optional.of(second), repository.getLastTransaction(accountId));
+        }
+
+        @Test
+        @DisplayName("should return nothing for an account without history")
+        void returnEmptyHistory() {
+            var accountId = UUID.randomUUID();
+
+            assertEquals(List.of(), repository.getAllTransactions(accountId));
+            assertEquals(Optional.empty(), repository.getLastTransaction(accountId));
+        }
+
+        @Test
+        @DisplayName("should return the transactions of a date range and of a page")
+        void returnRangeAndPage() {
+            var accountId = UUID.randomUUID();
+            var transactions = new ArrayList<Transaction>();
+            for (int i = 0; i < 10; i++) {
+                var transaction = new Transaction(accountId, LocalDate.of(2022, 1, 1).plusDays(i / 2),
+                        BigDecimal.ONE.setScale(2, RoundingMode.HALF_EVEN), TransactionType.DEPOSIT,
+                        BigDecimal.valueOf(i + 1).setScale(2, RoundingMode.HALF_EVEN));
+                transactions.add(repository.addTransaction(transaction));
+            }
+
+            assertEquals(transactions.subList(2, 6),
+                    repository.getTransactions(accountId, LocalDate.of(2022, 1, 2), LocalDate.of(2022, 1, 3)));
+            assertEquals(transactions.subList(8, 10), repository.getTransactions(accountId, 8, 5));
+        }
+
+        @Test
+        @DisplayName("should not append when the factory throws")
+        void notAppendWhenFactoryThrows() {
+            var accountId = UUID.randomUUID();
+
+            assertThrows(InvalidTransactionException.class, () -> repository.appendTransaction(accountId, last -> {
+                throw new InvalidTransactionException("rejected");
+            }));
+            assertEquals(List.of(), repository.getAllTransactions(accountId));
+        }
+
+        @Test
+        @DisplayName("should refuse a transaction built for another account")
+        void refuseForeignTransaction() {
+            var accountId = UUID.randomUUID();
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> repository.appendTransaction(accountId, last -> transaction(UUID.randomUUID(), 1, 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("when used from many threads")
+    class MultiThread {
+        private static final int THREADS = 8;
+        private static final int OPERATIONS = 2_000;
+
+        @Test
+        @DisplayName("should keep every account balance chain consistent")
+        void keepBalanceChainConsistent() throws Exception {
+            var accounts = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+            var service = new NoOverdraftAccountService(id -> true, repository, list -> { });
+            var rejected = new AtomicInteger();
+
+            runConcurrently(thread -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    var accountId = accounts.get((thread + i) % accounts.size());
+                    if (i % 3 == 2) {
+                        try {
+                            service.withdraw(accountId, BigDecimal.ONE);
+                        } catch (InvalidTransactionException | OverdraftException e) {
+                            rejected.incrementAndGet();
+                        }
+                    } else {
+                        service.deposit(accountId, BigDecimal.ONE);
+                    }
+                }
+                return null;
+            });
+
+            var total = BigDecimal.ZERO;
+            var count = 0;
+            for (var accountId : accounts) {
+                var history = repository.getAllTransactions(accountId);
+                assertChainConsistent(history);
+                total = total.add(history.get(history.size() - 1).accountBalance());
+                count += history.size();
+            }
+            assertEquals(THREADS * OPERATIONS, count + rejected.get());
+            var deposits = THREADS * (OPERATIONS - OPERATIONS / 3);
+            var withdraws = THREADS * (OPERATIONS / 3) - rejected.get();
+            assertEquals(BigDecimal.valueOf(deposits - withdraws).setScale(2, RoundingMode.HALF_EVEN), total);
+        }
+
+        @Test
+        @DisplayName("should not lose deposits on a single contended account")
+        void notLoseDeposits() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new NoOverdraftAccountService(id -> true, repository, list -> { });
+
+            runConcurrently(thread -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    service.deposit(accountId, BigDecimal.ONE);
+                }
+                return null;
+            });
+
+            var history = repository.getAllTransactions(accountId);
+            assertEquals(THREADS * OPERATIONS, history.size());
+            assertChainConsistent(history);
+            assertEquals(BigDecimal.valueOf(THREADS * OPERATIONS).setScale(2, RoundingMode.HALF_EVEN),
+                    repository.getLastTransaction(accountId).orElseThrow().accountBalance());
+        }
+
+        private void runConcurrently(ThreadTask task) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                var start = new CountDownLatch(1);
+                var futures = new ArrayList<Future<Void>>();
+                for (int t = 0; t < THREADS; t++) {
+                    var thread = t;
+                    futures.add(executor.submit((Callable<Void>) () -> {
+                        start.await();
+                        return task.run(thread);
+                    }));
+                }
+                start.countDown();
+                for (var future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void assertChainConsistent(List<Transaction> history) {
+        var balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN);
+        for (var transaction : history) {
+            balance = transaction.type() == TransactionType.DEPOSIT
+                    ? balance.add(transaction.amount())
+                    : balance.subtract(transaction.amount());
+            assertEquals(balance, transaction.accountBalance());
+            assertTrue(balance.signum() >= 0);
+        }
+    }
+
+    private static Transaction transaction(UUID accountId, int amount, int balance) {
+        return new Transaction(accountId, LocalDate.of(2022, 1, 20),
+                BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_EVEN), TransactionType.DEPOSIT,
+                BigDecimal.valueOf(balance).setScale(2, RoundingMode.HALF_EVEN));
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        Void run(int thread) throws NotFoundAccountException, InvalidTransactionException, OverdraftException;
+    }
+}
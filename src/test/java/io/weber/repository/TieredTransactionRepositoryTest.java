@@ -0,0 +1,164 @@
+package io.weber.repository;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import io.weber.service.Transfer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tiered transaction repository test")
+public class TieredTransactionRepositoryTest {
+    private static final TieredConfig SMALL_TIERS = new TieredConfig(4, 8, ColdStore.blockLength(8) * 3L,
+            ColdStore.blockLength(8) * 2L);
+
+    @TempDir
+    Path directory;
+
+    private TieredTransactionRepository repository;
+
+    @BeforeEach
+    void open() throws IOException {
+        repository = new TieredTransactionRepository(directory, SMALL_TIERS);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("should give back a history spilled to several segments")
+    void giveBackSpilledHistory() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 70);
+        transactions.forEach(repository::addTransaction);
+
+        assertEquals(transactions, repository.getAllTransactions(accountId));
+        assertEquals(Optional.of(transactions.get(69)), repository.getLastTransaction(accountId));
+        assertEquals(64, repository.spilledTransactions());
+        try (var files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("should only load the cold blocks covered by a page")
+    void loadPageBlocks() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 30);
+        transactions.forEach(repository::addTransaction);
+
+        assertEquals(transactions.subList(10, 24), repository.getTransactions(accountId, 10, 14));
+        assertEquals(transactions.subList(28, 30), repository.getTransactions(accountId, 28, 10));
+        assertEquals(List.of(), repository.getTransactions(accountId, 30, 10));
+        assertEquals(2, repository.cacheStats().misses());
+    }
+
+    @Test
+    @DisplayName("should skip the cold blocks outside a date range")
+    void skipBlocksOutsideRange() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 30);
+        transactions.forEach(repository::addTransaction);
+
+        var range = repository.getTransactions(accountId, LocalDate.of(2022, 1, 30), LocalDate.of(2022, 2, 3));
+
+        assertEquals(transactions.subList(10, 15), range);
+        assertEquals(1, repository.cacheStats().misses());
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used blocks beyond the cache size")
+    void evictBlocks() {
+        var accountId = UUID.randomUUID();
+        generatedList(accountId, 40).forEach(repository::addTransaction);
+
+        repository.getAllTransactions(accountId);
+        repository.getAllTransactions(accountId);
+
+        var stats = repository.cacheStats();
+        assertEquals(2, stats.cachedBlocks());
+        assertEquals(ColdStore.blockLength(8) * 2L, stats.cachedBytes());
+        assertEquals(8, stats.misses());
+        assertEquals(6, stats.evictions());
+    }
+
+    @Test
+    @DisplayName("should spill the legs of a transfer like any other transaction")
+    void spillTransfers() {
+        var from = UUID.randomUUID();
+        var to = UUID.randomUUID();
+        repository.addTransaction(new Transaction(from, LocalDate.of(2022, 1, 1), new BigDecimal("100.00"),
+                TransactionType.DEPOSIT, new BigDecimal("100.00")));
+        for (int i = 1; i <= 20; i++) {
+            var balance = new BigDecimal(100 - i).setScale(2);
+            repository.appendTransfer(from, to, (lastFrom, lastTo) -> new Transfer(
+                    new Transaction(from, LocalDate.of(2022, 1, 2), BigDecimal.ONE.setScale(2), TransactionType.TRANSFER_OUT,
+                            lastFrom.orElseThrow().accountBalance().subtract(BigDecimal.ONE)),
+                    new Transaction(to, LocalDate.of(2022, 1, 2), BigDecimal.ONE.setScale(2), TransactionType.TRANSFER_IN,
+                            lastTo.map(Transaction::accountBalance).orElse(BigDecimal.ZERO.setScale(2)).add(BigDecimal.ONE))));
+            assertEquals(balance, repository.getLastTransaction(from).orElseThrow().accountBalance());
+        }
+
+        assertEquals(21, repository.getAllTransactions(from).size());
+        assertEquals(new BigDecimal("20.00"), repository.getAllTransactions(to).get(19).accountBalance());
+    }
+
+    @Test
+    @DisplayName("should reject a transaction that can't be spilled and keep the batch out")
+    void rejectUnencodableTransaction() {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 3);
+        var subCent = new Transaction(accountId, LocalDate.of(2022, 1, 23), new BigDecimal("0.001"),
+                TransactionType.DEPOSIT, new BigDecimal("0.011"));
+
+        assertThrows(ArithmeticException.class, () -> repository.addTransaction(subCent));
+        assertThrows(ArithmeticException.class, () -> repository.appendTransactions(accountId,
+                last -> List.of(transactions.get(0), transactions.get(1), subCent)));
+
+        assertEquals(List.of(), repository.getAllTransactions(accountId));
+    }
+
+    @Test
+    @DisplayName("should leave the hot window unchanged when a spill fails")
+    void keepHotWindowWhenSpillFails() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 12);
+        transactions.subList(0, 11).forEach(repository::addTransaction);
+        repository.close();
+
+        assertThrows(UncheckedIOException.class, () -> repository.addTransaction(transactions.get(11)));
+
+        assertEquals(transactions.subList(0, 11), repository.getAllTransactions(accountId));
+        assertEquals(0, repository.spilledTransactions());
+    }
+
+    private static List<Transaction> generatedList(UUID accountId, int size) {
+        var list = new ArrayList<Transaction>();
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var type = i % 3 == 2 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+            var amount = 500L + i;
+            balance += type == TransactionType.DEPOSIT ? amount : -amount;
+            list.add(new Transaction(accountId, LocalDate.of(2022, 1, 20).plusDays(i), BigDecimal.valueOf(amount, 2),
+                    type, BigDecimal.valueOf(balance, 2)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,185 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Journal compaction test")
+public class JournalCompactionTest {
+    private static final JournalConfig SMALL_SEGMENTS = new JournalConfig(JournalRecord.SIZE * 4L, FsyncPolicy.OS, 1);
+    private static final int HISTORY_SIZE = Integer.getInteger("journal.startup.transactions", 200_000);
+    private static final int ACCOUNTS = 1_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should restore heads from the snapshot and replay only the tail")
+    void restoreFromSnapshot() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 15);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.subList(0, 10).forEach(repository::addTransaction);
+            repository.compact();
+            transactions.subList(10, 15).forEach(repository::addTransaction);
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(5, repository.replayedRecords());
+            assertEquals(Optional.of(transactions.get(14)), repository.getLastTransaction(accountId));
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+        assertEquals(2, Journal.segments(directory.resolve("archive")).size());
+    }
+
+    @Test
+    @DisplayName("should read the segments covered by the snapshot once and serve later statements from memory")
+    void readRestoredHistoryOnce() throws IOException {
+        var accountId = UUID.randomUUID();
+        var otherId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 15);
+        var others = generatedList(otherId, 3);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.subList(0, 10).forEach(repository::addTransaction);
+            others.forEach(repository::addTransaction);
+            repository.compact();
+            transactions.subList(10, 15).forEach(repository::addTransaction);
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(others, repository.getAllTransactions(otherId));
+            var archived = Journal.segments(directory.resolve("archive"));
+            assertFalse(archived.isEmpty());
+            for (var segment : archived) {
+                Files.delete(segment);
+            }
+
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+            assertEquals(transactions.subList(8, 12), repository.getTransactions(accountId,
+                    transactions.get(8).date(), transactions.get(11).date()));
+            assertEquals(transactions.subList(6, 10), repository.getTransactions(accountId, 6, 4));
+            assertEquals(transactions.subList(8, 13), repository.getTransactions(accountId, 8, 5));
+            assertEquals(transactions.subList(12, 15), repository.getTransactions(accountId, 12, 10));
+            assertEquals(List.of(), repository.getTransactions(accountId, 15, 10));
+        }
+    }
+
+    @Test
+    @DisplayName("should continue the balance chain of an account known only from the snapshot")
+    void continueFromSnapshotHead() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 6);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.subList(0, 5).forEach(repository::addTransaction);
+            repository.compact();
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(0, repository.replayedRecords());
+            repository.appendTransaction(accountId, lastTransaction -> {
+                assertEquals(Optional.of(transactions.get(4)), lastTransaction);
+                return transactions.get(5);
+            });
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should replay only the journal tail when starting from a snapshot")
+    void replayOnlyTailFromSnapshot() throws IOException {
+        var config = new JournalConfig(JournalRecord.SIZE * 65_536L, FsyncPolicy.OS, 1);
+        var accounts = new UUID[ACCOUNTS];
+        var balances = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = new UUID(0, i);
+        }
+        var tail = HISTORY_SIZE / 100;
+        try (var repository = new JournalTransactionRepository(directory, config)) {
+            append(repository, accounts, balances, 0, HISTORY_SIZE - tail);
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, config)) {
+            assertEquals(HISTORY_SIZE - tail, repository.replayedRecords());
+            repository.compact();
+            append(repository, accounts, balances, HISTORY_SIZE - tail, HISTORY_SIZE);
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, config)) {
+            assertEquals(tail, repository.replayedRecords());
+            for (int i = 0; i < ACCOUNTS; i++) {
+                assertEquals(BigDecimal.valueOf(balances[i], 2),
+                        repository.getLastTransaction(accounts[i]).orElseThrow().accountBalance());
+            }
+        }
+        assertFalse(Journal.segments(directory.resolve("archive")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should keep a snapshot to restart from when compactions overlap")
+    void overlappingCompactions() throws Exception {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 200);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            var scheduler = Executors.newScheduledThreadPool(1);
+            try {
+                repository.scheduleCompaction(scheduler, Duration.ofMillis(1));
+                for (int i = 0; i < transactions.size(); i++) {
+                    repository.addTransaction(transactions.get(i));
+                    if (i % 20 == 0) {
+                        repository.compact();
+                    }
+                }
+            } finally {
+                scheduler.shutdown();
+                assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+            }
+            repository.compact();
+        }
+
+        assertEquals(1, Snapshot.snapshots(directory).size());
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(0, repository.replayedRecords());
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+    }
+
+    private static void append(JournalTransactionRepository repository, UUID[] accounts, long[] balances, int from, int to) {
+        var date = LocalDate.of(2022, 1, 1);
+        for (int i = from; i < to; i++) {
+            var account = i % accounts.length;
+            var amount = 100L + i % 1_000;
+            balances[account] += amount;
+            repository.addTransaction(new Transaction(accounts[account], date, BigDecimal.valueOf(amount, 2),
+                    TransactionType.DEPOSIT, BigDecimal.valueOf(balances[account], 2)));
+        }
+    }
+
+    private static List<Transaction> generatedList(UUID accountId, int size) {
+        var list = new ArrayList<Transaction>();
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var amount = 1_000L + i;
+            balance += amount;
+            list.add(new Transaction(accountId, LocalDate.of(2022, 1, 20).plusDays(i), BigDecimal.valueOf(amount, 2),
+                    TransactionType.DEPOSIT, BigDecimal.valueOf(balance, 2)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,209 @@
+package io.weber.repository.journal;
+
+import io.weber.service.Transaction;
+import io.weber.service.TransactionType;
+import io.weber.service.Transfer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Journal transaction repository test")
+public class JournalTransactionRepositoryTest {
+    private static final JournalConfig SMALL_SEGMENTS = new JournalConfig(JournalRecord.SIZE * 4L, FsyncPolicy.GROUP, 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should recover the history after a restart")
+    void recoverHistoryAfterRestart() throws IOException {
+        var accountId = UUID.randomUUID();
+        var otherId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 10);
+        var others = generatedList(otherId, 3);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.forEach(repository::addTransaction);
+            others.forEach(repository::addTransaction);
+        }
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+            assertEquals(others, repository.getAllTransactions(otherId));
+            assertEquals(Optional.of(others.get(2)), repository.getLastTransaction(otherId));
+        }
+        assertEquals(4, Journal.segments(directory).size());
+    }
+
+    @Test
+    @DisplayName("should truncate a torn record at the tail and keep appending after it")
+    void truncateTornTail() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 7);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.forEach(repository::addTransaction);
+        }
+        var segments = Journal.segments(directory);
+        tear(segments.get(segments.size() - 1), 2);
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions.subList(0, 6), repository.getAllTransactions(accountId));
+            repository.addTransaction(transactions.get(6));
+        }
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should not journal a transaction rejected by the factory")
+    void notJournalRejectedTransaction() throws IOException {
+        var accountId = UUID.randomUUID();
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertNull(repository.appendTransaction(accountId, lastTransaction -> null));
+        }
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(List.of(), repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should replay a batch torn at the tail neither in part nor at all")
+    void dropTornBatch() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 4);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            repository.addTransaction(transactions.get(0));
+            repository.appendTransactions(accountId, lastTransaction -> transactions.subList(1, 4));
+        }
+        var segments = Journal.segments(directory);
+        tear(segments.get(segments.size() - 1), 2);
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions.subList(0, 1), repository.getAllTransactions(accountId));
+            repository.appendTransactions(accountId, lastTransaction -> transactions.subList(1, 4));
+        }
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should replay neither leg of a transfer torn at the tail")
+    void dropTornTransfer() throws IOException {
+        var from = UUID.randomUUID();
+        var to = UUID.randomUUID();
+        var deposit = generatedList(from, 1).get(0);
+        var date = LocalDate.of(2022, 1, 21);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            repository.addTransaction(deposit);
+            repository.appendTransfer(from, to, (lastFrom, lastTo) -> new Transfer(
+                    new Transaction(from, date, new BigDecimal("4.00"), TransactionType.TRANSFER_OUT, new BigDecimal("6.00")),
+                    new Transaction(to, date, new BigDecimal("4.00"), TransactionType.TRANSFER_IN, new BigDecimal("4.00"))));
+        }
+        var segments = Journal.segments(directory);
+        tear(segments.get(segments.size() - 1), 2);
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(List.of(deposit), repository.getAllTransactions(from));
+            assertEquals(List.of(), repository.getAllTransactions(to));
+        }
+    }
+
+    @Test
+    @DisplayName("should reopen the journal after a batch rolled to a new segment")
+    void reopenAfterRolledBatch() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 7);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.subList(0, 3).forEach(repository::addTransaction);
+            repository.appendTransactions(accountId, lastTransaction -> transactions.subList(3, 5));
+        }
+        assertEquals(2, Journal.segments(directory).size());
+
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions.subList(0, 5), repository.getAllTransactions(accountId));
+            repository.appendTransactions(accountId, lastTransaction -> transactions.subList(5, 7));
+        }
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(transactions, repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse a sealed segment whose unused end is not zeroed")
+    void refuseCorruptedSealedSegment() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = generatedList(accountId, 5);
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            transactions.subList(0, 3).forEach(repository::addTransaction);
+            repository.appendTransactions(accountId, lastTransaction -> transactions.subList(3, 5));
+        }
+        tear(Journal.segments(directory).get(0), 3);
+
+        assertThrows(IllegalStateException.class, () -> new JournalTransactionRepository(directory, SMALL_SEGMENTS));
+    }
+
+    @Test
+    @DisplayName("should journal nothing of a batch holding a transaction that can't be encoded")
+    void rejectWholeBatch() throws IOException {
+        var accountId = UUID.randomUUID();
+        var transactions = new ArrayList<>(generatedList(accountId, 3));
+        transactions.set(1, new Transaction(accountId, LocalDate.of(2022, 1, 21), new BigDecimal("0.001"),
+                TransactionType.DEPOSIT, new BigDecimal("10.001")));
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertThrows(ArithmeticException.class, () -> repository.appendTransactions(accountId, lastTransaction -> transactions));
+            assertEquals(List.of(), repository.getAllTransactions(accountId));
+            assertEquals(Optional.empty(), repository.getLastTransaction(accountId));
+        }
+        try (var repository = new JournalTransactionRepository(directory, SMALL_SEGMENTS)) {
+            assertEquals(List.of(), repository.getAllTransactions(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should force an incomplete group once the group commit delay elapsed")
+    void forceIncompleteGroup() throws IOException, InterruptedException {
+        var config = new JournalConfig(JournalRecord.SIZE * 4L, FsyncPolicy.GROUP, 100, Duration.ofMillis(5));
+        try (var journal = Journal.open(directory, config, entry -> { })) {
+            journal.append(generatedList(UUID.randomUUID(), 1).get(0));
+            var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (journal.unsynced() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, journal.unsynced());
+        }
+    }
+
+    private static void tear(Path segment, int record) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), (long) record * JournalRecord.SIZE + 10);
+        }
+    }
+
+    private static List<Transaction> generatedList(UUID accountId, int size) {
+        var list = new ArrayList<Transaction>();
+        var balance = 0L;
+        for (int i = 0; i < size; i++) {
+            var amount = 1_000L + i;
+            balance += amount;
+            list.add(new Transaction(accountId, LocalDate.of(2022, 1, 20).plusDays(i), BigDecimal.valueOf(amount, 2),
+                    TransactionType.DEPOSIT, BigDecimal.valueOf(balance, 2)));
+        }
+        return list;
+    }
+}
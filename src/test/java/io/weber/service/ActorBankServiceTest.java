@@ -0,0 +1,174 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.printer.AccountStatementPrinter;
+import io.weber.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Actor bank service test")
+public class ActorBankServiceTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+
+    @Mock
+    private AccountStatementPrinter printer;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("when submitting operations")
+    class Submit {
+
+        @Test
+        @DisplayName("should apply the operations of an account in submission order")
+        void applyInOrder() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new ActorBankService(id -> true, transactionRepository, printer, executor);
+
+            var deposit = service.deposit(accountId, new BigDecimal(100));
+            var withdraw = service.withdraw(accountId, new BigDecimal("100.00"));
+            var overdraft = service.withdraw(accountId, BigDecimal.ONE);
+            var print = service.printAccountStatement(accountId);
+
+            assertEquals(new Transaction(accountId, LocalDate.now(), new BigDecimal("100.00"), TransactionType.WITHDRAW,
+                    new BigDecimal("0.00")), withdraw.get(1, TimeUnit.MINUTES));
+            var failure = assertThrows(ExecutionException.class, () -> overdraft.get(1, TimeUnit.MINUTES));
+            assertInstanceOf(InvalidTransactionException.class, failure.getCause());
+            assertEquals("Balance can't be negative", failure.getCause().getMessage());
+            print.get(1, TimeUnit.MINUTES);
+            verify(printer).print(List.of(deposit.get(), withdraw.get()));
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally for an unknown account or an invalid amount")
+        void completeExceptionally() {
+            var known = UUID.randomUUID();
+            var service = new ActorBankService(id -> id.equals(known), transactionRepository, printer, executor);
+
+            var unknown = assertThrows(ExecutionException.class,
+                    () -> service.deposit(UUID.randomUUID(), BigDecimal.TEN).get(1, TimeUnit.MINUTES));
+            var invalid = assertThrows(ExecutionException.class,
+                    () -> service.deposit(known, BigDecimal.ZERO).get(1, TimeUnit.MINUTES));
+
+            assertInstanceOf(NotFoundAccountException.class, unknown.getCause());
+            assertInstanceOf(InvalidTransactionException.class, invalid.getCause());
+            assertEquals(List.of(), transactionRepository.getAllTransactions(known));
+        }
+
+        @Test
+        @DisplayName("should not keep a mailbox for an unknown account")
+        void noMailboxForUnknownAccount() {
+            var service = new ActorBankService(id -> false, transactionRepository, printer, executor);
+
+            for (int i = 0; i < 100; i++) {
+                var failure = assertThrows(ExecutionException.class,
+                        () -> service.deposit(UUID.randomUUID(), BigDecimal.TEN).get(1, TimeUnit.MINUTES));
+                assertInstanceOf(NotFoundAccountException.class, failure.getCause());
+            }
+
+            assertEquals(0, service.mailboxCount());
+        }
+
+        @Test
+        @DisplayName("should complete exceptionally and drop the operation when the executor rejects it")
+        void completeExceptionallyWhenRejected() throws Exception {
+            var accountId = UUID.randomUUID();
+            var rejecting = new AtomicBoolean(true);
+            var service = new ActorBankService(id -> true, transactionRepository, printer, command -> {
+                if (rejecting.getAndSet(false)) {
+                    throw new RejectedExecutionException("Saturated");
+                }
+                command.run();
+            });
+
+            var failure = assertThrows(ExecutionException.class,
+                    () -> service.deposit(accountId, BigDecimal.TEN).get(1, TimeUnit.MINUTES));
+            service.deposit(accountId, BigDecimal.ONE).get(1, TimeUnit.MINUTES);
+
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+            assertEquals(List.of(new BigDecimal("1.00")), transactionRepository.getAllTransactions(accountId).stream()
+                    .map(Transaction::amount).toList());
+        }
+
+        @Test
+        @DisplayName("should continue the balance already stored for the account")
+        void continueStoredBalance() throws Exception {
+            var accountId = UUID.randomUUID();
+            transactionRepository.addTransaction(new Transaction(accountId, LocalDate.now(), new BigDecimal("5.00"),
+                    TransactionType.DEPOSIT, new BigDecimal("5.00")));
+            var service = new ActorBankService(id -> true, transactionRepository, printer, executor);
+
+            assertEquals(new BigDecimal("7.50"),
+                    service.deposit(accountId, new BigDecimal("2.5")).get(1, TimeUnit.MINUTES).accountBalance());
+        }
+    }
+
+    @Nested
+    @DisplayName("when many callers submit concurrently")
+    class Concurrent {
+        private static final int CALLERS = 8;
+        private static final int OPERATIONS = 2_000;
+
+        @Test
+        @DisplayName("should not lose any deposit on a shared account")
+        void notLoseDeposits() throws Exception {
+            var accountId = UUID.randomUUID();
+            var service = new ActorBankService(id -> true, transactionRepository, printer, executor);
+            var callers = Executors.newFixedThreadPool(CALLERS);
+            try {
+                var futures = new ArrayList<CompletableFuture<Transaction>>();
+                var submitted = new ArrayList<Future<List<CompletableFuture<Transaction>>>>();
+                for (int c = 0; c < CALLERS; c++) {
+                    submitted.add(callers.submit(() -> {
+                        var own = new ArrayList<CompletableFuture<Transaction>>();
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            own.add(service.deposit(accountId, BigDecimal.ONE));
+                        }
+                        return own;
+                    }));
+                }
+                for (var future : submitted) {
+                    futures.addAll(future.get(1, TimeUnit.MINUTES));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+            } finally {
+                callers.shutdownNow();
+            }
+
+            var history = transactionRepository.getAllTransactions(accountId);
+            assertEquals(CALLERS * OPERATIONS, history.size());
+            for (int i = 0; i < history.size(); i++) {
+                assertEquals(BigDecimal.valueOf(i + 1).setScale(2, RoundingMode.HALF_EVEN), history.get(i).accountBalance());
+            }
+        }
+    }
+}
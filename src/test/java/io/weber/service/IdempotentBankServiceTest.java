@@ -0,0 +1,206 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotent bank service test")
+public class IdempotentBankServiceTest {
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-01-20T10:00:00Z"));
+    private final List<IdempotencyRecord> records = new ArrayList<>();
+
+    @Mock
+    private BankService delegate;
+
+    @Nested
+    @DisplayName("when a keyed request is retried")
+    class Retry {
+
+        @Test
+        @DisplayName("should return the original transaction without applying it again")
+        void replayOriginalTransaction() throws Exception {
+            var accountId = UUID.randomUUID();
+            var transaction = transaction(accountId, TransactionType.DEPOSIT);
+            when(delegate.deposit(accountId, BigDecimal.TEN)).thenReturn(transaction);
+            var service = service(100);
+
+            assertSame(transaction, service.deposit("request-1", accountId, BigDecimal.TEN));
+            assertSame(transaction, service.deposit("request-1", accountId, new BigDecimal("10.00")));
+
+            verify(delegate, times(1)).deposit(accountId, BigDecimal.TEN);
+            assertEquals(1, service.replays());
+            assertEquals(List.of(new IdempotencyRecord("request-1", clock.instant(), transaction)), records);
+        }
+
+        @Test
+        @DisplayName("should refuse a key reused for another request")
+        void refuseReusedKey() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(delegate.deposit(accountId, BigDecimal.TEN)).thenReturn(transaction(accountId, TransactionType.DEPOSIT));
+            var service = service(100);
+            service.deposit("request-1", accountId, BigDecimal.TEN);
+
+            assertThrows(IllegalArgumentException.class, () -> service.withdraw("request-1", accountId, BigDecimal.TEN));
+            assertThrows(IllegalArgumentException.class, () -> service.deposit("request-1", accountId, BigDecimal.ONE));
+        }
+
+        @Test
+        @DisplayName("should apply the request again once the first attempt failed")
+        void retryFailedRequest() throws Exception {
+            var accountId = UUID.randomUUID();
+            var transaction = transaction(accountId, TransactionType.WITHDRAW);
+            when(delegate.withdraw(accountId, BigDecimal.TEN))
+                    .thenThrow(new InvalidTransactionException("Balance can't be negative"))
+                    .thenReturn(transaction);
+            var service = service(100);
+
+            assertThrows(InvalidTransactionException.class, () -> service.withdraw("request-1", accountId, BigDecimal.TEN));
+            assertSame(transaction, service.withdraw("request-1", accountId, BigDecimal.TEN));
+            assertEquals(0, service.replays());
+        }
+
+        @Test
+        @DisplayName("should apply each concurrent duplicate only once")
+        void applyConcurrentDuplicatesOnce() throws Exception {
+            var accountId = UUID.randomUUID();
+            var repository = new InMemoryTransactionRepository();
+            var service = new IdempotentBankService(new NoOverdraftAccountService(id -> true, repository, list -> { }),
+                    WINDOW, 100, clock, records::add);
+            var executor = Executors.newFixedThreadPool(8);
+            try {
+                var start = new CountDownLatch(1);
+                var futures = new ArrayList<Future<Transaction>>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(executor.submit((Callable<Transaction>) () -> {
+                        start.await();
+                        return service.deposit("request-1", accountId, BigDecimal.TEN);
+                    }));
+                }
+                start.countDown();
+                var first = futures.get(0).get(1, TimeUnit.MINUTES);
+                for (var future : futures) {
+                    assertSame(first, future.get(1, TimeUnit.MINUTES));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(1, repository.getAllTransactions(accountId).size());
+            assertEquals(7, service.replays());
+        }
+    }
+
+    @Nested
+    @DisplayName("when keys accumulate")
+    class Bounds {
+
+        @Test
+        @DisplayName("should forget keys older than the window")
+        void expireKeys() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(delegate.deposit(accountId, BigDecimal.TEN)).thenReturn(transaction(accountId, TransactionType.DEPOSIT));
+            var service = service(100);
+            service.deposit("request-1", accountId, BigDecimal.TEN);
+
+            clock.advance(WINDOW);
+            service.deposit("request-1", accountId, BigDecimal.TEN);
+
+            verify(delegate, times(2)).deposit(accountId, BigDecimal.TEN);
+        }
+
+        @Test
+        @DisplayName("should evict the oldest keys beyond the capacity")
+        void boundSize() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(delegate.deposit(accountId, BigDecimal.TEN)).thenReturn(transaction(accountId, TransactionType.DEPOSIT));
+            var service = service(3);
+
+            for (int i = 0; i < 10; i++) {
+                service.deposit("request-" + i, accountId, BigDecimal.TEN);
+            }
+            service.deposit("request-9", accountId, BigDecimal.TEN);
+            service.deposit("request-0", accountId, BigDecimal.TEN);
+
+            assertEquals(3, service.size());
+            verify(delegate, times(11)).deposit(accountId, BigDecimal.TEN);
+        }
+
+        @Test
+        @DisplayName("should restore only the records inside the window")
+        void restoreRecentRecords() throws Exception {
+            var accountId = UUID.randomUUID();
+            var recent = transaction(accountId, TransactionType.DEPOSIT);
+            var service = service(100);
+
+            service.restore(List.of(
+                    new IdempotencyRecord("old", clock.instant().minus(WINDOW), transaction(accountId, TransactionType.DEPOSIT)),
+                    new IdempotencyRecord("recent", clock.instant().minusSeconds(60), recent)));
+
+            assertEquals(1, service.size());
+            assertSame(recent, service.deposit("recent", accountId, BigDecimal.TEN));
+            verifyNoInteractions(delegate);
+        }
+    }
+
+    private IdempotentBankService service(int capacity) {
+        return new IdempotentBankService(delegate, WINDOW, capacity, clock, records::add);
+    }
+
+    private static Transaction transaction(UUID accountId, TransactionType type) {
+        return new Transaction(accountId, LocalDate.of(2022, 1, 20), new BigDecimal("10.00"), type, new BigDecimal("10.00"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
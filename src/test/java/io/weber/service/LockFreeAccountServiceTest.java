@@ -0,0 +1,249 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.exception.OverdraftException;
+import io.weber.printer.AccountStatementPrinter;
+import io.weber.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Lock free bank service test")
+public class LockFreeAccountServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountStatementPrinter printer;
+    @InjectMocks
+    private LockFreeAccountService service;
+    @Captor
+    private ArgumentCaptor<List<Transaction>> captor;
+
+    @Nested
+    @DisplayName("when making a deposit or a withdraw")
+    class DepositAndWithdraw {
+
+        @Test
+        @DisplayName("should chain balances on a known account")
+        void chainBalances() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+
+            service.deposit(accountId, new BigDecimal(150));
+            var item = service.withdraw(accountId, new BigDecimal("49.999"));
+
+            assertEquals(new Transaction(accountId, LocalDate.now(), new BigDecimal("50.00"), TransactionType.WITHDRAW,
+                    new BigDecimal("100.00")), item);
+        }
+
+        @Test
+        @DisplayName("should not withdraw more than the balance")
+        void throwInvalidTransactionExceptionWhenOverdraft() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            service.deposit(accountId, new BigDecimal(10));
+
+            assertThrows(InvalidTransactionException.class, () -> service.withdraw(accountId, new BigDecimal(11)));
+        }
+
+        @Test
+        @DisplayName("should not work with an unknown account")
+        void throwNotFoundAccountException() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(false);
+
+            assertThrows(NotFoundAccountException.class, () -> service.deposit(accountId, BigDecimal.ONE));
+        }
+
+        @Test
+        @DisplayName("should not work with a negative amount")
+        void throwInvalidTransactionExceptionWithNegativeAmount() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+
+            assertThrows(InvalidTransactionException.class, () -> service.withdraw(accountId, new BigDecimal(-1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("when making a transfer")
+    class TransferBetweenAccounts {
+
+        @Test
+        @DisplayName("should commit both legs")
+        void commitBothLegs() throws Exception {
+            var from = UUID.randomUUID();
+            var to = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(any())).thenReturn(true);
+            service.deposit(from, new BigDecimal(100));
+
+            var transfer = service.transfer(from, to, new BigDecimal(40));
+
+            assertEquals(new BigDecimal("60.00"), transfer.outgoing().accountBalance());
+            assertEquals(new BigDecimal("40.00"), transfer.incoming().accountBalance());
+            service.printAccountStatement(to);
+            verify(printer).print(captor.capture());
+            assertEquals(List.of(transfer.incoming()), captor.getValue());
+        }
+
+        @Test
+        @DisplayName("should commit neither leg when the credited balance would overflow")
+        void commitNeitherLegOnOverflow() throws Exception {
+            var from = UUID.randomUUID();
+            var to = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(any())).thenReturn(true);
+            var deposit = service.deposit(from, new BigDecimal(100));
+            service.deposit(to, Money.toBigDecimal(Long.MAX_VALUE));
+
+            assertThrows(ArithmeticException.class, () -> service.transfer(from, to, BigDecimal.ONE));
+
+            service.printAccountStatement(from);
+            verify(printer).print(captor.capture());
+            assertEquals(List.of(deposit), captor.getValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("when printing part of the statement")
+    class PartialStatement {
+
+        @Test
+        @DisplayName("should print the transactions of a date range")
+        void printDateRange() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            var deposits = new ArrayList<Transaction>();
+            for (int i = 1; i <= 20; i++) {
+                deposits.add(service.deposit(accountId, BigDecimal.valueOf(i)));
+            }
+            var today = LocalDate.now();
+
+            service.printAccountStatement(accountId, today, today);
+            service.printAccountStatement(accountId, today.plusDays(1), today.plusDays(2));
+            service.printAccountStatement(accountId, today.minusDays(2), today.minusDays(1));
+
+            verify(printer, times(3)).print(captor.capture());
+            assertEquals(List.of(deposits, List.of(), List.of()), captor.getAllValues());
+        }
+
+        @Test
+        @DisplayName("should print every transaction once when paging through the statement")
+        void pageThroughStatement() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            var deposits = new ArrayList<Transaction>();
+            for (int i = 1; i <= 1_000; i++) {
+                deposits.add(service.deposit(accountId, BigDecimal.ONE));
+            }
+
+            var pages = 0;
+            for (var cursor = 0; cursor >= 0; pages++) {
+                cursor = service.printAccountStatementPage(accountId, cursor, 7);
+            }
+
+            verify(printer, times(pages)).print(captor.capture());
+            var printed = new ArrayList<Transaction>();
+            captor.getAllValues().forEach(printed::addAll);
+            assertEquals(deposits, printed);
+            assertEquals(143, pages);
+        }
+
+        @Test
+        @DisplayName("should print a page in the middle of the statement and the empty page past its end")
+        void printMiddleAndPastEnd() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            var deposits = new ArrayList<Transaction>();
+            for (int i = 1; i <= 100; i++) {
+                deposits.add(service.deposit(accountId, BigDecimal.ONE));
+            }
+
+            assertEquals(60, service.printAccountStatementPage(accountId, 37, 23));
+            assertEquals(-1, service.printAccountStatementPage(accountId, 100, 10));
+
+            verify(printer, times(2)).print(captor.capture());
+            assertEquals(List.of(deposits.subList(37, 60), List.of()), captor.getAllValues());
+        }
+    }
+
+    @Nested
+    @DisplayName("when used from many threads on one account")
+    class Contended {
+        private static final int THREADS = 8;
+        private static final int OPERATIONS = 5_000;
+
+        @Test
+        @DisplayName("should never lose an update nor go below zero")
+        void keepBalanceConsistent() throws Exception {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            var rejected = new AtomicInteger();
+            var executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                var start = new CountDownLatch(1);
+                var futures = new ArrayList<Future<?>>();
+                for (int t = 0; t < THREADS; t++) {
+                    var withdrawing = t % 2 == 1;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            if (withdrawing) {
+                                try {
+                                    service.withdraw(accountId, BigDecimal.ONE);
+                                } catch (InvalidTransactionException | OverdraftException e) {
+                                    rejected.incrementAndGet();
+                                }
+                            } else {
+                                service.deposit(accountId, BigDecimal.ONE);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (var future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            service.printAccountStatement(accountId);
+            verify(printer).print(captor.capture());
+            var history = captor.getValue();
+            assertEquals(THREADS * OPERATIONS - rejected.get(), history.size());
+            var balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN);
+            for (var transaction : history) {
+                balance = transaction.type() == TransactionType.DEPOSIT
+                        ? balance.add(transaction.amount()) : balance.subtract(transaction.amount());
+                assertEquals(balance, transaction.accountBalance());
+                assertTrue(balance.signum() >= 0);
+            }
+            assertEquals(BigDecimal.valueOf(rejected.get()).setScale(2, RoundingMode.HALF_EVEN), balance);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.weber.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money test")
+public class MoneyTest {
+
+    @Test
+    @DisplayName("should round to cents with HALF_EVEN")
+    void roundHalfEven() {
+        assertEquals(2, Money.toCents(new BigDecimal("0.025")));
+        assertEquals(4, Money.toCents(new BigDecimal("0.035")));
+        assertEquals(15_000, Money.toCents(new BigDecimal(150)));
+        assertEquals(-520, Money.toCents(BigDecimal.valueOf(-5.2)));
+    }
+
+    @Test
+    @DisplayName("should give back a scale 2 amount")
+    void giveBackScaleTwoAmount() {
+        assertEquals(new BigDecimal(150).setScale(2, RoundingMode.HALF_EVEN), Money.toBigDecimal(15_000));
+        assertEquals(new BigDecimal("0.00"), Money.toBigDecimal(0));
+    }
+
+    @Test
+    @DisplayName("should detect overflows")
+    void detectOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("100000000000000000000")));
+        assertEquals(Long.MAX_VALUE, Money.toCents(BigDecimal.valueOf(Long.MAX_VALUE, 2)));
+    }
+
+    @Test
+    @DisplayName("should refuse sub cent amounts when asked to")
+    void refuseSubCentAmounts() {
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1.001"), RoundingMode.UNNECESSARY));
+    }
+}
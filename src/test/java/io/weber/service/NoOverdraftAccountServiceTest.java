@@ -50,6 +50,7 @@ public class NoOverdraftAccountServiceTest {
             var newTransaction = new Transaction(accountId, LocalDate.now(),amount,
                     TransactionType.DEPOSIT, new BigDecimal(150).setScale(2, RoundingMode.HALF_EVEN));
             when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
             when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.empty());
             when(transactionRepository.addTransaction(newTransaction)).thenReturn(newTransaction);
 
@@ -58,6 +59,7 @@ public class NoOverdraftAccountServiceTest {
 
             final var orderVerifier = inOrder(accountRepository, transactionRepository);
             orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).appendTransaction(eq(accountId), any());
             orderVerifier.verify(transactionRepository).getLastTransaction(accountId);
             orderVerifier.verify(transactionRepository).addTransaction(newTransaction);
             orderVerifier.verifyNoMoreInteractions();
@@ -74,6 +76,7 @@ public class NoOverdraftAccountServiceTest {
             var newTransaction = new Transaction(accountId, LocalDate.now(),amount, TransactionType.DEPOSIT,
                     new BigDecimal(250).setScale(2, RoundingMode.HALF_EVEN));
             when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
             when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
             when(transactionRepository.addTransaction(newTransaction)).thenReturn(newTransaction);
 
@@ -82,6 +85,7 @@ public class NoOverdraftAccountServiceTest {
 
             final var orderVerifier = inOrder(accountRepository, transactionRepository);
             orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).appendTransaction(eq(accountId), any());
             orderVerifier.verify(transactionRepository).getLastTransaction(accountId);
             orderVerifier.verify(transactionRepository).addTransaction(newTransaction);
             orderVerifier.verifyNoMoreInteractions();
@@ -130,6 +134,7 @@ public class NoOverdraftAccountServiceTest {
             var newTransaction = new Transaction(accountId, LocalDate.now(),amount,
                     TransactionType.WITHDRAW, new BigDecimal(100).setScale(2, RoundingMode.HALF_EVEN));
             when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
             when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
             when(transactionRepository.addTransaction(newTransaction)).thenReturn(newTransaction);
 
@@ -138,6 +143,7 @@ public class NoOverdraftAccountServiceTest {
 
             final var orderVerifier = inOrder(accountRepository, transactionRepository);
             orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).appendTransaction(eq(accountId), any());
             orderVerifier.verify(transactionRepository).getLastTransaction(accountId);
             orderVerifier.verify(transactionRepository).addTransaction(newTransaction);
             orderVerifier.verifyNoMoreInteractions();
@@ -149,6 +155,7 @@ public class NoOverdraftAccountServiceTest {
             var accountId = UUID.randomUUID();
             var amount = new BigDecimal(150);
             when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
             when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.empty());
 
             assertThrows(InvalidTransactionException.class,
@@ -156,6 +163,7 @@ public class NoOverdraftAccountServiceTest {
 
             final var orderVerifier = inOrder(accountRepository, transactionRepository);
             orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).appendTransaction(eq(accountId), any());
             orderVerifier.verify(transactionRepository).getLastTransaction(accountId);
             orderVerifier.verifyNoMoreInteractions();
         }
@@ -167,6 +175,7 @@ public class NoOverdraftAccountServiceTest {
             var amount = new BigDecimal(300);
             var lastTransaction = new Transaction(accountId, LocalDate.now(), new BigDecimal(250), TransactionType.DEPOSIT, new BigDecimal(250));
             when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
             when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
 
 
@@ -175,6 +184,7 @@ public class NoOverdraftAccountServiceTest {
 
             final var orderVerifier = inOrder(accountRepository, transactionRepository);
             orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).appendTransaction(eq(accountId), any());
             orderVerifier.verify(transactionRepository).getLastTransaction(accountId);
             orderVerifier.verifyNoMoreInteractions();
         }
@@ -208,6 +218,211 @@ public class NoOverdraftAccountServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("when using the result API")
+    class Results {
+
+        @Test
+        @DisplayName("should report an overdraft without appending")
+        void reportOverdraft() {
+            var accountId = UUID.randomUUID();
+            var lastTransaction = new Transaction(accountId, LocalDate.now(), new BigDecimal(250), TransactionType.DEPOSIT, new BigDecimal(250));
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
+
+            assertEquals(TransactionResult.OVERDRAFT, service.tryWithdraw(accountId, new BigDecimal(300)));
+
+            verify(transactionRepository, never()).addTransaction(any());
+        }
+
+        @Test
+        @DisplayName("should accept a withdraw covered by the balance")
+        void acceptWithdraw() {
+            var accountId = UUID.randomUUID();
+            var lastTransaction = new Transaction(accountId, LocalDate.now(), new BigDecimal(250), TransactionType.DEPOSIT, new BigDecimal(250));
+            var newTransaction = new Transaction(accountId, LocalDate.now(), new BigDecimal(250).setScale(2, RoundingMode.HALF_EVEN),
+                    TransactionType.WITHDRAW, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN));
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
+            when(transactionRepository.addTransaction(newTransaction)).thenReturn(newTransaction);
+
+            assertEquals(new TransactionResult.Accepted(newTransaction), service.tryWithdraw(accountId, new BigDecimal(250)));
+        }
+
+        @Test
+        @DisplayName("should report an unknown account")
+        void reportUnknownAccount() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(false);
+
+            assertEquals(TransactionResult.UNKNOWN_ACCOUNT, service.tryDeposit(accountId, BigDecimal.ONE));
+
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @DisplayName("should report an invalid amount")
+        void reportInvalidAmount() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+
+            assertEquals(TransactionResult.INVALID_AMOUNT, service.tryDeposit(accountId, BigDecimal.ZERO));
+
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @DisplayName("should report an amount too large for a balance as invalid")
+        void reportTooLargeAmount() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+
+            assertEquals(TransactionResult.INVALID_AMOUNT, service.tryDeposit(accountId, new BigDecimal("1e30")));
+            assertEquals(TransactionResult.INVALID_AMOUNT, service.tryWithdraw(accountId, new BigDecimal("1e30")));
+            assertThrows(InvalidTransactionException.class, () -> service.deposit(accountId, new BigDecimal("1e30")));
+
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @DisplayName("should report a deposit overflowing the balance as invalid without appending")
+        void reportOverflowingBalance() {
+            var accountId = UUID.randomUUID();
+            var lastTransaction = new Transaction(accountId, LocalDate.now(), Money.toBigDecimal(Long.MAX_VALUE),
+                    TransactionType.DEPOSIT, Money.toBigDecimal(Long.MAX_VALUE));
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransaction(eq(accountId), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
+
+            assertEquals(TransactionResult.INVALID_AMOUNT, service.tryDeposit(accountId, BigDecimal.ONE));
+            assertThrows(InvalidTransactionException.class, () -> service.deposit(accountId, BigDecimal.ONE));
+
+            verify(transactionRepository, never()).addTransaction(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("when making a transfer")
+    class TransferBetweenAccounts {
+
+        @Test
+        @DisplayName("should append both legs when the balance covers the amount")
+        void appendBothLegs() throws NotFoundAccountException, InvalidTransactionException {
+            var from = UUID.randomUUID();
+            var to = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(any())).thenReturn(true);
+            when(transactionRepository.appendTransfer(eq(from), eq(to), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(from)).thenReturn(Optional.of(new Transaction(from,
+                    LocalDate.now(), new BigDecimal("100.00"), TransactionType.DEPOSIT, new BigDecimal("100.00"))));
+            when(transactionRepository.getLastTransaction(to)).thenReturn(Optional.empty());
+
+            var transfer = service.transfer(from, to, new BigDecimal(40));
+
+            var outgoing = new Transaction(from, LocalDate.now(), new BigDecimal("40.00"), TransactionType.TRANSFER_OUT,
+                    new BigDecimal("60.00"));
+            var incoming = new Transaction(to, LocalDate.now(), new BigDecimal("40.00"), TransactionType.TRANSFER_IN,
+                    new BigDecimal("40.00"));
+            assertEquals(new Transfer(outgoing, incoming), transfer);
+            verify(transactionRepository).addTransaction(outgoing);
+            verify(transactionRepository).addTransaction(incoming);
+        }
+
+        @Test
+        @DisplayName("should refuse a transfer that would overdraw the debited account")
+        void refuseOverdraft() {
+            var from = UUID.randomUUID();
+            var to = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(any())).thenReturn(true);
+            when(transactionRepository.appendTransfer(eq(from), eq(to), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(any())).thenReturn(Optional.empty());
+
+            var exception = assertThrows(InvalidTransactionException.class,
+                    () -> service.transfer(from, to, BigDecimal.ONE));
+
+            assertEquals("Balance can't be negative", exception.getMessage());
+            verify(transactionRepository, never()).addTransaction(any());
+        }
+
+        @Test
+        @DisplayName("should refuse an unknown account, an invalid amount or a single account")
+        void refuseInvalidTransfer() {
+            var from = UUID.randomUUID();
+            var unknown = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(from)).thenReturn(true);
+            when(accountRepository.ifAccountExist(unknown)).thenReturn(false);
+
+            assertThrows(NotFoundAccountException.class, () -> service.transfer(from, unknown, BigDecimal.ONE));
+            assertThrows(InvalidTransactionException.class, () -> service.transfer(from, from, BigDecimal.ZERO));
+            assertThrows(InvalidTransactionException.class, () -> service.transfer(from, from, BigDecimal.ONE));
+
+            verifyNoInteractions(transactionRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("when executing a batch")
+    class Batch {
+
+        @Test
+        @DisplayName("should apply commands in order and report each outcome")
+        void applyCommandsInOrder() {
+            var accountId = UUID.randomUUID();
+            var unknownId = UUID.randomUUID();
+            var lastTransaction = new Transaction(accountId, LocalDate.now(), new BigDecimal(100), TransactionType.DEPOSIT,
+                    new BigDecimal(100));
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(accountRepository.ifAccountExist(unknownId)).thenReturn(false);
+            when(transactionRepository.appendTransactions(eq(accountId), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.of(lastTransaction));
+
+            var results = service.execute(List.of(
+                    BankCommand.withdraw(accountId, new BigDecimal(150)),
+                    BankCommand.deposit(unknownId, new BigDecimal(10)),
+                    BankCommand.deposit(accountId, new BigDecimal(50)),
+                    BankCommand.deposit(accountId, new BigDecimal(-1)),
+                    BankCommand.withdraw(accountId, new BigDecimal(150))));
+
+            var deposit = new Transaction(accountId, LocalDate.now(), new BigDecimal(50).setScale(2, RoundingMode.HALF_EVEN),
+                    TransactionType.DEPOSIT, new BigDecimal(150).setScale(2, RoundingMode.HALF_EVEN));
+            var withdraw = new Transaction(accountId, LocalDate.now(), new BigDecimal(150).setScale(2, RoundingMode.HALF_EVEN),
+                    TransactionType.WITHDRAW, BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN));
+            assertEquals(List.of(TransactionResult.OVERDRAFT, TransactionResult.UNKNOWN_ACCOUNT,
+                    new TransactionResult.Accepted(deposit), TransactionResult.INVALID_AMOUNT,
+                    new TransactionResult.Accepted(withdraw)), results);
+
+            verify(accountRepository).ifAccountExist(accountId);
+            verify(accountRepository).ifAccountExist(unknownId);
+            verify(transactionRepository).appendTransactions(eq(accountId), any());
+            verify(transactionRepository).getLastTransaction(accountId);
+            verify(transactionRepository).addTransaction(deposit);
+            verify(transactionRepository).addTransaction(withdraw);
+            verifyNoMoreInteractions(accountRepository, transactionRepository);
+        }
+
+        @Test
+        @DisplayName("should report an overflowing amount without aborting the batch")
+        void reportOverflowingAmount() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.appendTransactions(eq(accountId), any())).thenCallRealMethod();
+            when(transactionRepository.getLastTransaction(accountId)).thenReturn(Optional.empty());
+
+            var results = service.execute(List.of(
+                    BankCommand.deposit(accountId, new BigDecimal(10)),
+                    BankCommand.deposit(accountId, Money.toBigDecimal(Long.MAX_VALUE)),
+                    BankCommand.deposit(accountId, new BigDecimal("1e30")),
+                    BankCommand.withdraw(accountId, new BigDecimal(10))));
+
+            assertEquals(TransactionResult.INVALID_AMOUNT, results.get(1));
+            assertEquals(TransactionResult.INVALID_AMOUNT, results.get(2));
+            assertEquals(new TransactionResult.Accepted(new Transaction(accountId, LocalDate.now(),
+                    new BigDecimal(10).setScale(2, RoundingMode.HALF_EVEN), TransactionType.WITHDRAW,
+                    BigDecimal.ZERO.setScale(2, RoundingMode.HALF_EVEN))), results.get(3));
+        }
+    }
+
     @Nested
     @DisplayName("when making a printAccountStatement")
     class PrintAccountStatement {
@@ -242,6 +457,53 @@ public class NoOverdraftAccountServiceTest {
 
         }
 
+        @Test
+        @DisplayName("should print the transactions of a date range")
+        void printDateRange() throws NotFoundAccountException{
+            var accountId = UUID.randomUUID();
+            var from = LocalDate.of(2022,2,1);
+            var to = LocalDate.of(2022,3,31);
+            var range = generatedList(accountId).subList(1, 3);
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.getTransactions(accountId, from, to)).thenReturn(range);
+
+            service.printAccountStatement(accountId, from, to);
+
+            final var orderVerifier = inOrder(accountRepository, transactionRepository, printer);
+            orderVerifier.verify(accountRepository).ifAccountExist(accountId);
+            orderVerifier.verify(transactionRepository).getTransactions(accountId, from, to);
+            orderVerifier.verify(printer).print(range);
+            orderVerifier.verifyNoMoreInteractions();
+        }
+
+        @Test
+        @DisplayName("should print a page and return the next cursor")
+        void printPage() throws NotFoundAccountException{
+            var accountId = UUID.randomUUID();
+            var history = generatedList(accountId);
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(true);
+            when(transactionRepository.getTransactions(accountId, 0, 3)).thenReturn(history.subList(0, 3));
+            when(transactionRepository.getTransactions(accountId, 3, 3)).thenReturn(history.subList(3, 4));
+
+            assertEquals(3, service.printAccountStatementPage(accountId, 0, 3));
+            assertEquals(-1, service.printAccountStatementPage(accountId, 3, 3));
+
+            verify(printer).print(history.subList(0, 3));
+            verify(printer).print(history.subList(3, 4));
+        }
+
+        @Test
+        @DisplayName("should not print a page of an unknown account")
+        void throwNotFoundAccountExceptionOnPage() {
+            var accountId = UUID.randomUUID();
+            when(accountRepository.ifAccountExist(accountId)).thenReturn(false);
+
+            assertThrows(NotFoundAccountException.class,
+                    () -> service.printAccountStatementPage(accountId, 0, 10));
+
+            verifyNoInteractions(transactionRepository, printer);
+        }
+
         private List<Transaction> generatedList(UUID id1){
 
             return List.of(new Transaction(id1, LocalDate.of(2022,1,20),new BigDecimal(100)
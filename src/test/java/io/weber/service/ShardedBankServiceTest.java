@@ -0,0 +1,266 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.exception.NotFoundAccountException;
+import io.weber.repository.InMemoryTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sharded bank service test")
+public class ShardedBankServiceTest {
+    private final Map<UUID, List<Transaction>> statements = new ConcurrentHashMap<>();
+    private final ExecutorService clients = Executors.newFixedThreadPool(4);
+    private final ShardedBankService service = new ShardedBankService(2, 16, id -> true,
+            InMemoryTransactionRepository::new, list -> {
+        if (!list.isEmpty()) {
+            statements.put(list.get(0).accountId(), list);
+        }
+    }, Executors.defaultThreadFactory());
+
+    @AfterEach
+    void shutdown() {
+        clients.shutdownNow();
+        service.close();
+    }
+
+    @Nested
+    @DisplayName("when routing operations")
+    class Routing {
+
+        @Test
+        @DisplayName("should apply the operations of an account on its shard")
+        void applyOnShard() throws Exception {
+            var accountId = UUID.randomUUID();
+
+            service.deposit(accountId, new BigDecimal(100));
+            service.withdraw(accountId, new BigDecimal(40));
+            service.printAccountStatement(accountId);
+
+            assertEquals(new BigDecimal("60.00"), balance(accountId));
+            assertEquals(TransactionResult.OVERDRAFT, service.tryWithdraw(accountId, new BigDecimal(100)));
+            assertThrows(InvalidTransactionException.class, () -> service.deposit(accountId, BigDecimal.ZERO));
+        }
+
+        @Test
+        @DisplayName("should transfer within a shard and across shards")
+        void transferAcrossShards() throws Exception {
+            var source = UUID.randomUUID();
+            var sameShard = accountOnShard(service.shardOf(source));
+            var otherShard = accountOnShard(1 - service.shardOf(source));
+            service.deposit(source, new BigDecimal(100));
+
+            service.transfer(source, sameShard, new BigDecimal(30));
+            var transfer = service.transfer(source, otherShard, new BigDecimal(50));
+
+            assertEquals(TransactionType.TRANSFER_IN, transfer.incoming().type());
+            assertEquals(new BigDecimal("20.00"), balance(source));
+            assertEquals(new BigDecimal("30.00"), balance(sameShard));
+            assertEquals(new BigDecimal("50.00"), balance(otherShard));
+            var overdraft = assertThrows(InvalidTransactionException.class,
+                    () -> service.transfer(source, otherShard, new BigDecimal(21)));
+            assertEquals("Balance can't be negative", overdraft.getMessage());
+        }
+
+        @Test
+        @DisplayName("should credit the amount back when the cross shard credit fails")
+        void compensateFailedCredit() throws Exception {
+            var source = UUID.randomUUID();
+            var otherShard = accountOnShard(1 - service.shardOf(source));
+            service.deposit(source, new BigDecimal(100));
+            service.deposit(otherShard, Money.toBigDecimal(Long.MAX_VALUE));
+
+            assertThrows(ArithmeticException.class, () -> service.transfer(source, otherShard, BigDecimal.ONE));
+
+            assertEquals(new BigDecimal("100.00"), balance(source));
+            assertEquals(List.of(TransactionType.DEPOSIT, TransactionType.TRANSFER_OUT, TransactionType.TRANSFER_IN),
+                    statements.get(source).stream().map(Transaction::type).toList());
+            assertEquals(Money.toBigDecimal(Long.MAX_VALUE), balance(otherShard));
+        }
+
+        @Test
+        @DisplayName("should reject transfers involving an unknown account")
+        void rejectUnknownAccount() {
+            var known = UUID.randomUUID();
+            var restricted = new ShardedBankService(2, 16, id -> id.equals(known), InMemoryTransactionRepository::new,
+                    list -> { }, Executors.defaultThreadFactory());
+            try {
+                var exception = assertThrows(NotFoundAccountException.class,
+                        () -> restricted.transfer(known, UUID.randomUUID(), BigDecimal.ONE));
+                assertEquals("Account id not found", exception.getMessage());
+            } finally {
+                restricted.close();
+            }
+        }
+
+        @Test
+        @DisplayName("should only keep track of the accounts an operation was applied to")
+        void trackAppliedAccountsOnly() {
+            var known = UUID.randomUUID();
+            var restricted = new ShardedBankService(2, 16, id -> id.equals(known), InMemoryTransactionRepository::new,
+                    list -> { }, Executors.defaultThreadFactory());
+            try {
+                assertEquals(TransactionResult.UNKNOWN_ACCOUNT, restricted.tryDeposit(UUID.randomUUID(), BigDecimal.ONE));
+                assertEquals(TransactionResult.OVERDRAFT, restricted.tryWithdraw(known, BigDecimal.ONE));
+                restricted.execute(List.of(BankCommand.deposit(UUID.randomUUID(), BigDecimal.ONE),
+                        BankCommand.deposit(known, BigDecimal.ZERO)));
+                assertEquals(0, restricted.trackedAccounts());
+
+                restricted.tryDeposit(known, BigDecimal.ONE);
+                assertEquals(1, restricted.trackedAccounts());
+            } finally {
+                restricted.close();
+            }
+        }
+
+        @Test
+        @DisplayName("should execute a batch spread over every shard in command order per account")
+        void executeBatch() throws Exception {
+            var first = accountOnShard(0);
+            var second = accountOnShard(1);
+
+            var results = service.execute(List.of(BankCommand.deposit(first, BigDecimal.TEN),
+                    BankCommand.deposit(second, BigDecimal.ONE), BankCommand.withdraw(first, new BigDecimal(4)),
+                    BankCommand.withdraw(second, new BigDecimal(2))));
+
+            assertInstanceOf(TransactionResult.Accepted.class, results.get(0));
+            assertInstanceOf(TransactionResult.Accepted.class, results.get(1));
+            assertInstanceOf(TransactionResult.Accepted.class, results.get(2));
+            assertEquals(TransactionResult.OVERDRAFT, results.get(3));
+            assertEquals(new BigDecimal("6.00"), balance(first));
+        }
+    }
+
+    @Nested
+    @DisplayName("when moving slots")
+    class Migration {
+
+        @Test
+        @DisplayName("should keep the history of an account moved to another shard")
+        void keepHistory() throws Exception {
+            var accountId = UUID.randomUUID();
+            service.deposit(accountId, new BigDecimal(100));
+            var origin = service.shardOf(accountId);
+
+            service.moveSlot(service.slotOf(accountId), 1 - origin);
+            service.withdraw(accountId, BigDecimal.TEN);
+            service.moveSlot(service.slotOf(accountId), origin);
+            service.deposit(accountId, BigDecimal.ONE);
+
+            assertEquals(origin, service.shardOf(accountId));
+            assertEquals(new BigDecimal("91.00"), balance(accountId));
+            assertEquals(3, statements.get(accountId).size());
+        }
+
+        @Test
+        @DisplayName("should not lose deposits made while shards are added and slots move")
+        void noLostUpdates() throws Exception {
+            var accounts = new ArrayList<UUID>();
+            for (int i = 0; i < 32; i++) {
+                accounts.add(UUID.randomUUID());
+            }
+            var running = new AtomicBoolean(true);
+            var futures = new ArrayList<Future<Integer>>();
+            for (int client = 0; client < 4; client++) {
+                var random = new Random(client);
+                futures.add(clients.submit(() -> {
+                    var deposits = 0;
+                    while (running.get() || deposits < 500) {
+                        service.deposit(accounts.get(random.nextInt(accounts.size())), BigDecimal.ONE);
+                        deposits++;
+                    }
+                    return deposits;
+                }));
+            }
+
+            service.addShard();
+            var random = new Random(42);
+            for (int i = 0; i < 50; i++) {
+                service.moveSlot(random.nextInt(16), random.nextInt(service.shardCount()));
+            }
+            service.addShard();
+            running.set(false);
+
+            var expected = 0;
+            for (var future : futures) {
+                expected += future.get(1, TimeUnit.MINUTES);
+            }
+            var total = BigDecimal.ZERO;
+            for (var accountId : accounts) {
+                total = total.add(balance(accountId));
+                assertEquals(balance(accountId).intValue(), statements.get(accountId).size());
+            }
+            assertEquals(4, service.shardCount());
+            assertEquals(new BigDecimal(expected).setScale(2), total);
+        }
+
+        @Test
+        @DisplayName("should conserve money with concurrent cross shard transfers")
+        void conserveMoney() throws Exception {
+            var accounts = new ArrayList<UUID>();
+            for (int i = 0; i < 8; i++) {
+                var accountId = UUID.randomUUID();
+                service.deposit(accountId, new BigDecimal(100));
+                accounts.add(accountId);
+            }
+            var futures = new ArrayList<Future<?>>();
+            for (int client = 0; client < 4; client++) {
+                var random = new Random(client);
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        var from = accounts.get(random.nextInt(accounts.size()));
+                        var to = accounts.get(random.nextInt(accounts.size()));
+                        try {
+                            service.transfer(from, to, new BigDecimal(1 + random.nextInt(30)));
+                        } catch (InvalidTransactionException ignored) {
+                            // overdrafts and self transfers are expected
+                        }
+                    }
+                    return null;
+                }));
+            }
+            service.moveSlot(service.slotOf(accounts.get(0)), 1 - service.shardOf(accounts.get(0)));
+            for (var future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+
+            var total = BigDecimal.ZERO;
+            for (var accountId : accounts) {
+                assertTrue(balance(accountId).signum() >= 0);
+                total = total.add(balance(accountId));
+            }
+            assertEquals(new BigDecimal("800.00"), total);
+        }
+    }
+
+    private BigDecimal balance(UUID accountId) throws NotFoundAccountException {
+        service.printAccountStatement(accountId);
+        var statement = statements.get(accountId);
+        return statement.get(statement.size() - 1).accountBalance();
+    }
+
+    private UUID accountOnShard(int shard) {
+        while (true) {
+            var accountId = UUID.randomUUID();
+            if (service.shardOf(accountId) == shard) {
+                return accountId;
+            }
+        }
+    }
+}
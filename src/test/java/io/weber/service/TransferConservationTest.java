@@ -0,0 +1,120 @@
+package io.weber.service;
+
+import io.weber.exception.InvalidTransactionException;
+import io.weber.repository.ColumnarTransactionRepository;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transfer conservation test")
+public class TransferConservationTest {
+    private static final int ACCOUNTS = 12;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS = 5_000;
+    private static final long INITIAL_CENTS = 10_000;
+
+    @Test
+    @DisplayName("should conserve money with random concurrent transfers on the in memory repository")
+    void conserveOnInMemoryRepository() throws Exception {
+        var repository = new InMemoryTransactionRepository(4);
+        assertConserved(new NoOverdraftAccountService(id -> true, repository, list -> { }), repository::getAllTransactions);
+    }
+
+    @Test
+    @DisplayName("should conserve money with random concurrent transfers on the columnar repository")
+    void conserveOnColumnarRepository() throws Exception {
+        var repository = new ColumnarTransactionRepository();
+        assertConserved(new NoOverdraftAccountService(id -> true, repository, list -> { }), repository::getAllTransactions);
+    }
+
+    @Test
+    @DisplayName("should conserve money with random concurrent transfers on the lock free ledger")
+    void conserveOnLockFreeLedger() throws Exception {
+        var histories = new ConcurrentHashMap<UUID, List<Transaction>>();
+        var service = new LockFreeAccountService(id -> true, list -> {
+            if (!list.isEmpty()) {
+                histories.put(list.get(0).accountId(), list);
+            }
+        });
+        assertConserved(service, id -> {
+            try {
+                service.printAccountStatement(id);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return histories.getOrDefault(id, List.of());
+        });
+    }
+
+    private static void assertConserved(BankService service, Function<UUID, List<Transaction>> history) throws Exception {
+        var accounts = new UUID[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = UUID.randomUUID();
+            service.deposit(accounts[i], BigDecimal.valueOf(INITIAL_CENTS, 2));
+        }
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                var random = new Random(31L * t + 7);
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < TRANSFERS; i++) {
+                        var from = random.nextInt(ACCOUNTS);
+                        var to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        try {
+                            service.transfer(accounts[from], accounts[to], BigDecimal.valueOf(1 + random.nextInt(5_000), 2));
+                        } catch (InvalidTransactionException e) {
+                            assertEquals("Balance can't be negative", e.getMessage());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var total = 0L;
+        var transfersOut = 0L;
+        var transfersIn = 0L;
+        for (var accountId : accounts) {
+            var balance = 0L;
+            for (var transaction : history.apply(accountId)) {
+                var cents = Money.toCents(transaction.amount());
+                balance = transaction.type().isCredit() ? balance + cents : balance - cents;
+                assertEquals(balance, Money.toCents(transaction.accountBalance()));
+                assertTrue(balance >= 0);
+                if (transaction.type() == TransactionType.TRANSFER_OUT) {
+                    transfersOut += cents;
+                } else if (transaction.type() == TransactionType.TRANSFER_IN) {
+                    transfersIn += cents;
+                }
+            }
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * INITIAL_CENTS, total);
+        assertEquals(transfersOut, transfersIn);
+    }
+}
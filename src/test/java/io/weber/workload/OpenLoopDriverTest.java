@@ -0,0 +1,78 @@
+package io.weber.workload;
+
+import io.weber.repository.InMemoryAccountRepository;
+import io.weber.repository.InMemoryTransactionRepository;
+import io.weber.service.NoOverdraftAccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Open loop driver test")
+public class OpenLoopDriverTest {
+    private static final WorkloadConfig CONFIG = new WorkloadConfig(3, 100, 0.99, 0.45, 0.45, 0.1, 0.2, 10_000, 100_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should issue every command at the target rate")
+    void driveAtTargetRate() throws InterruptedException {
+        var generator = new WorkloadGenerator(CONFIG);
+        var service = new NoOverdraftAccountService(new InMemoryAccountRepository(generator.accounts()),
+                new InMemoryTransactionRepository(), list -> { });
+        var driver = new OpenLoopDriver(service, 4, 10_000, Executors.defaultThreadFactory());
+        driver.run(generator.openingDeposits());
+
+        var report = driver.run(generator.generate(2_000));
+
+        assertEquals(2_000, report.commands());
+        assertEquals(2_000, report.latency().count());
+        assertEquals(0, report.failures());
+        assertEquals(0, report.unknownAccounts());
+        assertTrue(report.rejected() > 0);
+        assertTrue(report.elapsed().toMillis() >= 199, "elapsed " + report.elapsed());
+        assertTrue(report.throughput() <= 10_100, "throughput " + report.throughput());
+    }
+
+    @Test
+    @DisplayName("should count commands on unknown accounts apart from rejections")
+    void countUnknownAccounts() throws InterruptedException {
+        var service = new NoOverdraftAccountService(new InMemoryAccountRepository(), new InMemoryTransactionRepository(),
+                list -> { });
+        var driver = new OpenLoopDriver(service, 2, 0, Executors.defaultThreadFactory());
+
+        var report = driver.run(List.of(
+                new WorkloadCommand(WorkloadOperation.DEPOSIT, UUID.randomUUID(), 100),
+                new WorkloadCommand(WorkloadOperation.STATEMENT, UUID.randomUUID(), 0)));
+
+        assertEquals(2, report.unknownAccounts());
+        assertEquals(0, report.rejected());
+    }
+
+    @Test
+    @DisplayName("should reject the same commands when replaying a recorded workload on one thread")
+    void replayRecordedWorkload() throws Exception {
+        var trace = directory.resolve("workload.trace").toString();
+        var out = new ByteArrayOutputStream();
+        var options = Map.of("seed", "11", "accounts", "50", "commands", "3000", "threads", "1", "record", trace);
+
+        var recorded = WorkloadTool.run(options, new PrintStream(out, true, StandardCharsets.UTF_8));
+        var replayed = WorkloadTool.run(Map.of("replay", trace, "threads", "1"),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        assertEquals(3_000, replayed.commands());
+        assertEquals(recorded.rejected(), replayed.rejected());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("latency_us p50="));
+    }
+}
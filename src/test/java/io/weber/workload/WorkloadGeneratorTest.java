@@ -0,0 +1,79 @@
+package io.weber.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Workload generator test")
+public class WorkloadGeneratorTest {
+    private static final WorkloadConfig CONFIG = new WorkloadConfig(7, 1_000, 0.99, 0.5, 0.4, 0.1, 0.1, 10_000, 50_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should generate the same workload for the same seed")
+    void generateDeterministically() {
+        var first = new WorkloadGenerator(CONFIG);
+        var second = new WorkloadGenerator(CONFIG);
+        var other = new WorkloadGenerator(new WorkloadConfig(8, 1_000, 0.99, 0.5, 0.4, 0.1, 0.1, 10_000, 50_000));
+
+        assertEquals(first.openingDeposits(), second.openingDeposits());
+        assertEquals(first.generate(10_000), second.generate(10_000));
+        assertNotEquals(first.accounts(), other.accounts());
+    }
+
+    @Test
+    @DisplayName("should follow the operation mix, the overdraft ratio and the account skew")
+    void followConfiguredShape() {
+        var generator = new WorkloadGenerator(CONFIG);
+        var balances = new HashMap<UUID, Long>();
+        generator.openingDeposits().forEach(command -> balances.merge(command.accountId(), command.amountCents(), Long::sum));
+        var operations = new EnumMap<WorkloadOperation, Integer>(WorkloadOperation.class);
+        var hits = new HashMap<UUID, Integer>();
+        var overdrafts = 0;
+
+        for (var command : generator.generate(100_000)) {
+            operations.merge(command.operation(), 1, Integer::sum);
+            hits.merge(command.accountId(), 1, Integer::sum);
+            var balance = balances.getOrDefault(command.accountId(), 0L);
+            if (command.operation() == WorkloadOperation.DEPOSIT) {
+                balances.put(command.accountId(), balance + command.amountCents());
+            } else if (command.operation() == WorkloadOperation.WITHDRAW) {
+                if (command.amountCents() > balance) {
+                    overdrafts++;
+                } else {
+                    balances.put(command.accountId(), balance - command.amountCents());
+                }
+            }
+        }
+
+        assertEquals(50_000, operations.get(WorkloadOperation.DEPOSIT), 1_000);
+        assertEquals(40_000, operations.get(WorkloadOperation.WITHDRAW), 1_000);
+        assertEquals(10_000, operations.get(WorkloadOperation.STATEMENT), 1_000);
+        assertEquals(0.1, (double) overdrafts / operations.get(WorkloadOperation.WITHDRAW), 0.01);
+        var hottest = generator.accountsByPopularity().get(0);
+        var coldest = generator.accountsByPopularity().get(999);
+        assertTrue(hits.get(hottest) > 100 * hits.getOrDefault(coldest, 0), "hottest " + hits.get(hottest));
+    }
+
+    @Test
+    @DisplayName("should replay a recorded trace command for command")
+    void recordAndReplayTrace() throws IOException {
+        var generator = new WorkloadGenerator(CONFIG);
+        var trace = new WorkloadTrace(generator.openingDeposits(), generator.generate(5_000));
+        var path = directory.resolve("workload.trace");
+
+        trace.write(path);
+
+        assertEquals(trace, WorkloadTrace.read(path));
+    }
+}